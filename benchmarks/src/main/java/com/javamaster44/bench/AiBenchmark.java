@@ -0,0 +1,84 @@
+package com.javamaster44.bench;
+
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.Inventory;
+import com.javamaster44.logic.ShotStrategy;
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.Board;
+import com.javamaster44.model.Ship;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU target selection. {@code nextShot} measures a single decision from a
+ * mid-game position; {@code cpuTurnsToClearBoard} drives {@link GameEngine#cpuTurn()}
+ * until the player's fleet is gone (one op = one whole game of CPU turns).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiBenchmark {
+    @Param({"HUNT_TARGET", "DENSITY"})
+    public StrategyType strategy;
+
+    // Shots already taken before the measured decision
+    @Param({"20"})
+    public int shotsTaken;
+
+    private GameEngine engine;
+
+    /**
+     * Rebuilt before every nextShot call: a decision consumes hunt state, so
+     * reusing one position would measure an exhausted strategy. Note that
+     * bytes/op for nextShot includes this rebuild.
+     */
+    @State(Scope.Thread)
+    public static class MidGame {
+        ShotStrategy strategy;
+
+        @Setup(Level.Invocation)
+        public void setup(AiBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(42);
+            Board board = new Board(random);
+            board.placeShipsRandomly();
+            strategy = bench.strategy.create(random);
+            for (int i = 0; i < bench.shotsTaken; i++) {
+                int cell = strategy.nextShot();
+                boolean hit = board.getStatus(cell) == 3;
+                Ship s = board.getShipAt(cell);
+                if (hit) {
+                    board.setStatus(cell, 2);
+                    s.hit();
+                }
+                strategy.onShotResult(cell, hit, hit && s.isSunk() ? s : null);
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        engine = new GameEngine(0, new Inventory(), new SplittableRandom(42));
+        engine.setCpuStrategy(strategy.create(new SplittableRandom(43)));
+    }
+
+    @Benchmark
+    public int nextShot(MidGame position) {
+        return position.strategy.nextShot();
+    }
+
+    @Benchmark
+    public int cpuTurnsToClearBoard() {
+        engine.startAutoGame();
+        int turns = 0;
+        while (engine.getGameState() == GameEngine.GameState.PLAYING) {
+            engine.cpuTurn();
+            turns++;
+        }
+        return turns;
+    }
+}
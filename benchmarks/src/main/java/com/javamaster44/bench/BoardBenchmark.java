@@ -0,0 +1,66 @@
+package com.javamaster44.bench;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+import com.javamaster44.model.Ship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private Board board;
+    private Board halfSunk;
+    private final PlacementGenerator generator = new PlacementGenerator(GameVariant.STANDARD);
+    private final SplittableRandom random = new SplittableRandom(1);
+
+    @Setup
+    public void setup() {
+        board = new Board(new SplittableRandom(42));
+        board.placeShipsRandomly();
+
+        // Every ship but the last sunk, so allShipsSunk can't stop at the first ship
+        halfSunk = new Board(new SplittableRandom(7));
+        halfSunk.placeShipsRandomly();
+        for (int s = 0; s < halfSunk.getShips().size() - 1; s++) {
+            Ship ship = halfSunk.getShips().get(s);
+            for (int i = 0; i < ship.getCellCount(); i++) {
+                halfSunk.setStatus(ship.getCells()[i], 2);
+                ship.hit();
+            }
+        }
+    }
+
+    @Benchmark
+    public Board placeShipsRandomly() {
+        board.reset();
+        board.placeShipsRandomly();
+        return board;
+    }
+
+    @Benchmark
+    public int[] sampleFleetLayout() {
+        return generator.sample(random);
+    }
+
+    /** One full-board sweep, the same work GameUI does per refresh. */
+    @Benchmark
+    public void getShipAtAllCells(Blackhole bh) {
+        for (int cell = 0; cell < GameVariant.STANDARD.cells(); cell++) {
+            bh.consume(board.getShipAt(cell));
+        }
+    }
+
+    @Benchmark
+    public boolean allShipsSunk() {
+        return halfSunk.allShipsSunk();
+    }
+}
@@ -0,0 +1,32 @@
+package com.javamaster44.bench;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.sim.SimulatedGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Whole CPU-vs-CPU games through the headless engine; one op = one game. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    @Param({"HUNT_TARGET", "DENSITY"})
+    public StrategyType strategy;
+
+    private SimulatedGame game;
+
+    @Setup
+    public void setup() {
+        game = new SimulatedGame(new SplittableRandom(42), strategy, strategy);
+    }
+
+    @Benchmark
+    public SimulatedGame.Result fullGame() {
+        return game.play();
+    }
+}
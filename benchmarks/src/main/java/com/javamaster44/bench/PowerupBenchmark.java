@@ -0,0 +1,48 @@
+package com.javamaster44.bench;
+
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.Inventory;
+import com.javamaster44.logic.PowerupType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every usePowerup branch against a freshly placed CPU fleet. Each op includes
+ * the reset, so compare against {@code resetOnly} to isolate the powerup itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PowerupBenchmark {
+    @Param({"NUKE", "CONFUSION_RAY", "SHIP_FINDER", "TORPEDO", "FRAG_BOMB", "CROSS_FIRE", "BOMB"})
+    public PowerupType powerup;
+
+    private GameEngine engine;
+    private Inventory inventory;
+
+    @Setup
+    public void setup() {
+        inventory = new Inventory();
+        engine = new GameEngine(0, inventory, new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public GameEngine resetOnly() {
+        engine.startAutoGame();
+        inventory.set(powerup, 1);
+        return engine;
+    }
+
+    @Benchmark
+    public GameEngine usePowerup() {
+        engine.startAutoGame();
+        inventory.set(powerup, 1);
+        engine.usePowerup(powerup, 'E', 4);
+        return engine;
+    }
+}
@@ -1,6 +1,9 @@
 package com.javamaster44;
 
 
+import com.javamaster44.logic.SaveManager;
+import com.javamaster44.metrics.FlightRecording;
+import com.javamaster44.metrics.Metrics;
 import com.javamaster44.ui.GameUI;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -9,6 +12,8 @@ import javafx.stage.Stage;
 public class App extends Application {
     @Override
     public void start(Stage stage) {
+        Metrics.init();
+        FlightRecording.startIfRequested();
         GameUI gameUI = new GameUI();
         Scene scene = new Scene(gameUI.getRoot(), 1000, 700);
         stage.setTitle("Battleship Remastered - Java 21");
@@ -16,6 +21,12 @@ public class App extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        SaveManager.flush();
+        FlightRecording.stop();
+    }
+
     public static void main(String[] args) {
         launch();
     }
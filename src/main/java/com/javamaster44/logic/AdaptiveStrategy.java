@@ -0,0 +1,95 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.CellMask;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+/**
+ * Exploits the player's placement habits, as learned in {@link PlacementStats},
+ * and leaves everything else to another strategy. While no hit is unaccounted
+ * for it first fires at the player's hot cells, the ones holding a ship in at
+ * least {@value #HOT_HEAT} of their setups. On a first hit it tries the
+ * neighbours along the orientation the player clearly favours there. Before
+ * {@value #MIN_GAMES} recorded setups it only passes shots through.
+ * <p>
+ * The hot cells are ranked once per game, in {@link #reset()}; per-shot lookups
+ * are O(1), so the CPU turn costs the same as the inner strategy's.
+ */
+public class AdaptiveStrategy implements ShotStrategy {
+    private static final int MIN_GAMES = 3;
+    private static final float HOT_HEAT = 0.5f;
+    // One orientation must have at least this many times the other's count to count as a habit
+    private static final int ORIENTATION_BIAS = 2;
+
+    private final ShotStrategy inner;
+    private final PlacementStats stats;
+    private final int width;
+    private final int height;
+    private final CellMask fired;
+    private int[] hot = new int[0];
+    private int nextHot;
+    private final int[] probes = new int[2];
+    private int probeCount;
+    // Hit cells not yet part of a sunk ship
+    private int openHits;
+
+    public AdaptiveStrategy(GameVariant variant, ShotStrategy inner, PlacementStats stats) {
+        this.inner = inner;
+        this.stats = stats;
+        this.width = variant.width();
+        this.height = variant.height();
+        this.fired = new CellMask(variant.cells());
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        inner.reset();
+        fired.clearAll();
+        hot = stats.games() >= MIN_GAMES ? stats.hotCells(HOT_HEAT) : new int[0];
+        nextHot = 0;
+        probeCount = 0;
+        openHits = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        if (openHits > 0) {
+            while (probeCount > 0) {
+                int cell = probes[--probeCount];
+                if (!fired.get(cell)) return cell;
+            }
+        } else {
+            while (nextHot < hot.length) {
+                int cell = hot[nextHot++];
+                if (!fired.get(cell)) return cell;
+            }
+        }
+        return inner.nextShot();
+    }
+
+    @Override
+    public void onShotResult(int cell, boolean hit, Ship sunk) {
+        fired.set(cell);
+        if (hit && ++openHits == 1 && stats.games() >= MIN_GAMES) probe(cell);
+        if (sunk != null) {
+            openHits = Math.max(0, openHits - sunk.getCellCount());
+            if (openHits == 0) probeCount = 0;
+        }
+        inner.onShotResult(cell, hit, sunk);
+    }
+
+    // Queues the neighbours along the player's usual orientation through a fresh hit
+    private void probe(int cell) {
+        int h = stats.horizontal(cell), v = stats.vertical(cell);
+        int r = cell / width, c = cell % width;
+        probeCount = 0;
+        if (h > 0 && h >= ORIENTATION_BIAS * v) {
+            if (c > 0) probes[probeCount++] = cell - 1;
+            if (c + 1 < width) probes[probeCount++] = cell + 1;
+        } else if (v > 0 && v >= ORIENTATION_BIAS * h) {
+            if (r > 0) probes[probeCount++] = cell - width;
+            if (r + 1 < height) probes[probeCount++] = cell + width;
+        }
+    }
+}
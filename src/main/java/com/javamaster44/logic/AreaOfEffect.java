@@ -0,0 +1,50 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Cell footprints of the area powerups on one variant. Each shape is clipped to
+ * the board once per origin and then walked as straight runs of packed
+ * indices, so there is no per-cell bounds check or coordinate math, and every
+ * cell is visited once (the cross doesn't repeat its centre).
+ */
+public final class AreaOfEffect {
+    private final GameVariant variant;
+
+    public AreaOfEffect(GameVariant variant) {
+        this.variant = variant;
+    }
+
+    public void wholeBoard(IntConsumer cells) {
+        for (int cell = 0, n = variant.cells(); cell < n; cell++) cells.accept(cell);
+    }
+
+    public void row(int row, IntConsumer cells) {
+        int start = variant.cellIndex(row, 0);
+        for (int c = 0; c < variant.width(); c++) cells.accept(start + c);
+    }
+
+    public void column(int col, IntConsumer cells) {
+        for (int r = 0, cell = col; r < variant.height(); r++, cell += variant.width()) cells.accept(cell);
+    }
+
+    public void cross(int row, int col, IntConsumer cells) {
+        row(row, cells);
+        int centre = variant.cellIndex(row, col);
+        for (int r = 0, cell = col; r < variant.height(); r++, cell += variant.width()) {
+            if (cell != centre) cells.accept(cell);
+        }
+    }
+
+    /** The (2 * radius + 1)-wide square around the origin, clipped to the board. */
+    public void square(int row, int col, int radius, IntConsumer cells) {
+        int r0 = Math.max(0, row - radius), r1 = Math.min(variant.height() - 1, row + radius);
+        int c0 = Math.max(0, col - radius), c1 = Math.min(variant.width() - 1, col + radius);
+        int span = c1 - c0 + 1;
+        for (int r = r0, start = variant.cellIndex(r0, c0); r <= r1; r++, start += variant.width()) {
+            for (int i = 0; i < span; i++) cells.accept(start + i);
+        }
+    }
+}
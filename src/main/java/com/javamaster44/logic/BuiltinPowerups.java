@@ -0,0 +1,112 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.Ship;
+
+/** The powerups the game ships with, registered in {@code META-INF/services}. */
+public final class BuiltinPowerups {
+    private BuiltinPowerups() {}
+
+    public static final class Nuke implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.NUKE; }
+
+        @Override
+        public int cost() { return 50000; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            target.area().wholeBoard(target.shots()); //shoot the whole board
+        }
+    }
+
+    public static final class ConfusionRay implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.CONFUSION_RAY; }
+
+        @Override
+        public int cost() { return 1000; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            target.skipCpuTurn();
+            target.alert("Confusion Ray Used!", "CPU will skip this turn.");
+            target.shoot(target.variant().cellIndex(row, col));
+        }
+    }
+
+    public static final class ShipFinder implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.SHIP_FINDER; }
+
+        @Override
+        public int cost() { return 3000; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            // First intact ship cell, walking ship cells rather than the whole board
+            Board board = target.board();
+            for (Ship s : board.getShips()) {
+                for (int i = 0; i < s.getCellCount(); i++) {
+                    if (board.getStatus(s.getCells()[i]) == 3) {
+                        target.shoot(s.getCells()[i]);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    public static final class Torpedo implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.TORPEDO; }
+
+        @Override
+        public int cost() { return 5000; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            if (target.random().nextBoolean()) target.area().row(row, target.shots());
+            else target.area().column(col, target.shots());
+        }
+    }
+
+    public static final class FragBomb implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.FRAG_BOMB; }
+
+        @Override
+        public int cost() { return 2000; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            for (int i = 0; i < 8; i++) target.shoot(target.random().nextInt(target.variant().cells()));
+        }
+    }
+
+    public static final class CrossFire implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.CROSS_FIRE; }
+
+        @Override
+        public int cost() { return 5200; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            target.area().cross(row, col, target.shots());
+        }
+    }
+
+    public static final class Bomb implements Powerup {
+        @Override
+        public PowerupType type() { return PowerupType.BOMB; }
+
+        @Override
+        public int cost() { return 8000; }
+
+        @Override
+        public void fire(PowerupTarget target, int row, int col) {
+            target.area().square(row, col, 2, target.shots());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+import com.javamaster44.model.ShipDef;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Probability-density targeting. Every legal placement of every ship still afloat
+ * adds weight to the unknown cells it covers, and the strategy fires at the
+ * heaviest cell. Placements that also cover unresolved hits are weighted much
+ * more heavily, so hits are finished off before hunting resumes.
+ * <p>
+ * All placements and the cell-to-placement index are built once. Each shot result
+ * only touches the placements covering that cell, and {@link #nextShot()} walks
+ * preallocated arrays, so a move allocates nothing. Those arrays, and the work
+ * per move, scale with the board area, so the strategy is limited to variants
+ * of at most {@link #MAX_CELLS} cells.
+ */
+public class DensityStrategy implements ShotStrategy {
+    private static final byte UNKNOWN = 0, MISS = 1, HIT = 2, SUNK = 3;
+    // Weight multiplier per unresolved hit a placement covers
+    private static final int HIT_WEIGHT = 50;
+    public static final int MAX_CELLS = 256 * 256;
+
+    private final int[] fleetLengths;
+    private final int[] afloatByLength;
+
+    // Placement p covers pStart[p] + i * pStep[p] for i < pLength[p]
+    private final int[] pStart, pStep, pLength;
+    private final int[][] cellPlacements;
+    // Miss or sunk cells inside p; p is legal while 0
+    private final int[] pBlocked;
+    // Unresolved hit cells inside p
+    private final int[] pHits;
+
+    private final int cells;
+    private final byte[] cellState;
+    private final int[] density;
+    private int unresolvedHits;
+    private final RandomGenerator random;
+
+    public DensityStrategy(GameVariant variant, RandomGenerator random) {
+        if (variant.cells() > MAX_CELLS) {
+            throw new IllegalArgumentException("Density targeting supports at most " + MAX_CELLS + " cells");
+        }
+        this.random = random;
+        int width = variant.width(), height = variant.height();
+        this.cells = variant.cells();
+        this.cellState = new byte[cells];
+        this.density = new int[cells];
+        this.fleetLengths = variant.fleet().stream().mapToInt(ShipDef::length).toArray();
+        int maxLength = 0;
+        for (int len : fleetLengths) maxLength = Math.max(maxLength, len);
+        this.afloatByLength = new int[maxLength + 1];
+
+        // Enumerate placements once per distinct length
+        boolean[] seen = new boolean[maxLength + 1];
+        int count = 0;
+        for (int len : fleetLengths) {
+            if (!seen[len]) {
+                seen[len] = true;
+                if (len <= width) count += height * (width - len + 1);
+                if (len <= height) count += width * (height - len + 1);
+            }
+        }
+        pStart = new int[count];
+        pStep = new int[count];
+        pLength = new int[count];
+        int[] coverCount = new int[cells];
+        int p = 0;
+        for (int len = 1; len <= maxLength; len++) {
+            if (!seen[len]) continue;
+            for (int r = 0; r < height; r++) {
+                for (int c = 0; c + len <= width; c++) {
+                    pStart[p] = r * width + c; pStep[p] = 1; pLength[p++] = len;
+                }
+            }
+            for (int c = 0; c < width; c++) {
+                for (int r = 0; r + len <= height; r++) {
+                    pStart[p] = r * width + c; pStep[p] = width; pLength[p++] = len;
+                }
+            }
+        }
+        for (p = 0; p < count; p++) {
+            for (int i = 0; i < pLength[p]; i++) coverCount[pStart[p] + i * pStep[p]]++;
+        }
+        cellPlacements = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) cellPlacements[cell] = new int[coverCount[cell]];
+        int[] fill = new int[cells];
+        for (p = 0; p < count; p++) {
+            for (int i = 0; i < pLength[p]; i++) {
+                int cell = pStart[p] + i * pStep[p];
+                cellPlacements[cell][fill[cell]++] = p;
+            }
+        }
+        pBlocked = new int[count];
+        pHits = new int[count];
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(cellState, UNKNOWN);
+        Arrays.fill(pBlocked, 0);
+        Arrays.fill(pHits, 0);
+        Arrays.fill(afloatByLength, 0);
+        for (int len : fleetLengths) afloatByLength[len]++;
+        unresolvedHits = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        Arrays.fill(density, 0);
+        boolean targeting = unresolvedHits > 0;
+        for (int p = 0; p < pStart.length; p++) {
+            int afloat = afloatByLength[pLength[p]];
+            if (afloat == 0 || pBlocked[p] != 0) continue;
+            if (targeting && pHits[p] == 0) continue;
+            int weight = afloat * (1 + HIT_WEIGHT * pHits[p]);
+            for (int i = 0, cell = pStart[p]; i < pLength[p]; i++, cell += pStep[p]) {
+                density[cell] += weight;
+            }
+        }
+
+        int best = -1, bestWeight = 0, ties = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (cellState[cell] != UNKNOWN) continue;
+            int w = density[cell];
+            if (best < 0 || w > bestWeight) {
+                best = cell;
+                bestWeight = w;
+                ties = 1;
+            } else if (w == bestWeight && random.nextInt(++ties) == 0) {
+                best = cell; // reservoir sample among equal cells
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onShotResult(int cell, boolean hit, Ship sunk) {
+        if (cellState[cell] != UNKNOWN) return;
+        if (hit) {
+            cellState[cell] = HIT;
+            unresolvedHits++;
+            for (int p : cellPlacements[cell]) pHits[p]++;
+        } else {
+            cellState[cell] = MISS;
+            for (int p : cellPlacements[cell]) pBlocked[p]++;
+        }
+
+        if (sunk != null) {
+            int[] cells = sunk.getCells();
+            for (int i = 0; i < sunk.getCellCount(); i++) {
+                int c = cells[i];
+                if (cellState[c] != HIT) continue;
+                cellState[c] = SUNK;
+                unresolvedHits--;
+                for (int p : cellPlacements[c]) {
+                    pHits[p]--;
+                    pBlocked[p]++;
+                }
+            }
+            if (sunk.getLength() < afloatByLength.length && afloatByLength[sunk.getLength()] > 0) {
+                afloatByLength[sunk.getLength()]--;
+            }
+        }
+    }
+}
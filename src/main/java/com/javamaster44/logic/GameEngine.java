@@ -0,0 +1,536 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.metrics.CpuTurnEvent;
+import com.javamaster44.metrics.Metrics;
+import com.javamaster44.metrics.PowerupEvent;
+import com.javamaster44.metrics.ShotEvent;
+import com.javamaster44.metrics.SinkEvent;
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+import com.javamaster44.model.Ship;
+import com.javamaster44.model.ShipDef;
+import com.javamaster44.model.ShotResult;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Game rules with no JavaFX dependency: shots, powerups, the CPU turn and the
+ * money economy. Everything the UI needs to know is reported through a
+ * {@link GameListener}, so the same engine drives the FX game and headless
+ * simulations.
+ * <p>
+ * The engine has a single writer: every mutating call must come from the one
+ * thread driving the game (the FX thread, a bot or a server connection). Other
+ * threads read {@link #snapshot()}, an immutable copy of the money, inventory
+ * and turn state republished after every change, so they never see a torn
+ * mix of old and new values and never hold up the game loop.
+ */
+public class GameEngine {
+    public enum GameState {
+        SETUP, PLAYING, GAME_OVER
+    }
+
+    public static final int VICTORY_BONUS = 2000;
+
+    private final GameVariant variant;
+    private final Board playerBoard;
+    private final Board cpuBoard;
+    private final RandomGenerator random;
+    private final AreaOfEffect area;
+    // Ships sunk by the powerup being resolved, reported together when it finishes
+    private final List<Ship> batchSunk = new ArrayList<>();
+    private int batchShots;
+    private final IntConsumer fireAtCpu = this::fireInBatch;
+    private final PowerupTarget powerupTarget = new Target();
+    private ShotStrategy cpuStrategy;
+    private GameListener listener = GameListener.NONE;
+    private GameJournal journal;
+    private ReplayRecorder recorder;
+    private PlacementStats placementStats;
+    // The player's fleet this game was placed by hand; learned from when the game ends
+    private boolean manualFleet;
+
+    private int playerMoney;
+    private final Inventory inventory;
+    private GameState currentState = GameState.SETUP;
+    private boolean skipCpuTurn = false;
+    // The fields above as last published; written only by the game thread
+    private final AtomicReference<GameSnapshot> snapshot = new AtomicReference<>();
+
+    public GameEngine(int money, Inventory inventory, RandomGenerator random) {
+        this(GameVariant.STANDARD, money, inventory, random);
+    }
+
+    public GameEngine(GameVariant variant, int money, Inventory inventory, RandomGenerator random) {
+        this.variant = variant;
+        this.random = random;
+        this.playerBoard = new Board(variant, random);
+        this.cpuBoard = new Board(variant, random);
+        this.area = new AreaOfEffect(variant);
+        this.cpuStrategy = StrategyType.HUNT_TARGET.create(variant, random);
+        this.playerMoney = money;
+        this.inventory = inventory;
+        publish();
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener == null ? GameListener.NONE : listener;
+    }
+
+    /** Records every change to the game from now on (null to stop). */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /** Records each game from the start of play (null to stop); starts at once if a game is under way. */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+        if (recorder != null && currentState == GameState.PLAYING) recorder.start(this);
+    }
+
+    /** Learns from every fleet the player places by hand from now on, as each game ends (null to stop). */
+    public void setPlacementStats(PlacementStats stats) {
+        this.placementStats = stats;
+    }
+
+    /** Replaces the CPU targeting strategy; takes effect from its next shot. */
+    public void setCpuStrategy(ShotStrategy strategy) {
+        this.cpuStrategy = strategy;
+    }
+
+    /** Clears both boards, places the CPU fleet and waits for the player's fleet. */
+    public void resetGame() {
+        resetBoards();
+        publish();
+        if (journal != null) journal.snapshot(this);
+    }
+
+    private void resetBoards() {
+        playerBoard.reset();
+        cpuBoard.reset();
+        cpuBoard.placeShipsRandomly(); // CPU always auto-places
+        cpuStrategy.reset();
+        skipCpuTurn = false;
+        manualFleet = false;
+        currentState = GameState.SETUP;
+    }
+
+    public void startAutoGame() {
+        resetBoards();
+        playerBoard.placeShipsRandomly();
+        currentState = GameState.PLAYING;
+        if (journal != null) journal.snapshot(this);
+        if (recorder != null) recorder.start(this);
+        refresh();
+    }
+
+    /**
+     * Places (or moves) one of the player's ships during setup. Returns false if
+     * the placement was rejected; the previous position of that ship is cleared either way.
+     */
+    public boolean placePlayerShip(String shipName, char row, int col, boolean horizontal) {
+        if (currentState != GameState.SETUP) return false;
+
+        ShipDef def = variant.findShip(shipName);
+        if (def == null) return false;
+
+        // Overwrite logic: Remove existing ship of same name
+        playerBoard.removeShip(shipName);
+        boolean placed = playerBoard.placeShip(def, row - 'A', col, horizontal);
+        if (journal != null) {
+            int placement = placed ? variant.cellIndex(row - 'A', col) << 1 | (horizontal ? 1 : 0) : -1;
+            journal.placement(variant.fleet().indexOf(def), placement);
+            journal.commit(this);
+        }
+        refresh();
+        return placed;
+    }
+
+    /** Starts play once the whole player fleet is down. Returns false if setup is incomplete. */
+    public boolean finishSetup() {
+        if (playerBoard.getShips().size() < variant.fleet().size()) {
+            return false;
+        }
+        setState(GameState.PLAYING, skipCpuTurn);
+        commitJournal();
+        if (recorder != null) recorder.start(this);
+        manualFleet = true;
+        refresh();
+        return true;
+    }
+
+    // Player fires at the CPU board, then the CPU answers unless the game ended
+    public void handlePlayerShot(char row, int col, PowerupType activePowerup) {
+        if (currentState != GameState.PLAYING) return;
+        long t0 = Metrics.start();
+        try {
+            playerTurn(row, col, activePowerup);
+        } finally {
+            Metrics.PLAYER_TURN.stop(t0);
+        }
+    }
+
+    private void playerTurn(char row, int col, PowerupType activePowerup) {
+        if (activePowerup != null) {
+            usePowerup(activePowerup, row, col);
+        } else {
+            int cell = cpuBoard.cellIndex(row, col);
+            if (cpuBoard.getStatus(cell) == 1 || cpuBoard.getStatus(cell) == 2) {
+                return;
+            }
+            processShot(cpuBoard, cell, true);
+        }
+
+        boolean won = checkWinCondition();
+        if (recorder != null) {
+            int kind = activePowerup == null ? Replay.KIND_PLAYER : Replay.KIND_POWERUP + activePowerup.ordinal();
+            recorder.endTurn(kind, cpuBoard.cellIndex(row, col), playerMoney);
+        }
+        if (!won) {
+            cpuTurn();
+        }
+        commitJournal();
+    }
+
+    private void processShot(Board targetBoard, int cell, boolean isPlayerShooter) {
+        ShotEvent event = new ShotEvent();
+        event.begin();
+        Ship sunk = shoot(targetBoard, cell, isPlayerShooter);
+        if (sunk != null) {
+            SinkEvent sink = new SinkEvent();
+            sink.begin();
+            int delta = sinkDelta(sunk, isPlayerShooter);
+            playerMoney += delta;
+            publish();
+            listener.onSink(sunk, isPlayerShooter, delta);
+            saveData();
+            commitSink(sink, sunk, isPlayerShooter, delta, null);
+        }
+        if (event.shouldCommit()) {
+            event.playerShot = isPlayerShooter;
+            event.cell = cell;
+            event.row = cell / variant.width();
+            event.col = cell % variant.width();
+            event.result = shotResult(targetBoard, cell);
+            Ship s = targetBoard.getShipAt(cell);
+            event.ship = s == null ? null : s.getName();
+            event.commit();
+        }
+    }
+
+    private static String shotResult(Board board, int cell) {
+        if (board.getStatus(cell) != 2) return "miss";
+        Ship s = board.getShipAt(cell);
+        return s != null && s.isSunk() ? "sunk" : "hit";
+    }
+
+    private static void commitSink(SinkEvent event, Ship ship, boolean isPlayerShooter, int delta, PowerupType powerup) {
+        if (!event.shouldCommit()) return;
+        event.ship = ship.getName();
+        event.length = ship.getCellCount();
+        event.playerShot = isPlayerShooter;
+        event.moneyDelta = delta;
+        event.powerup = powerup == null ? null : powerup.name();
+        event.commit();
+    }
+
+    /** Resolves one shot without any events; returns the ship it sank, if any. */
+    private Ship shoot(Board targetBoard, int cell, boolean isPlayerShooter) {
+        int status = targetBoard.getStatus(cell);
+        if (status == 1 || status == 2) return null;
+        if (journal != null) journal.shot(targetBoard == cpuBoard, cell);
+        if (recorder != null) recorder.delta(targetBoard == cpuBoard, cell, status, status == 3 ? 2 : 1);
+        return targetBoard.fire(cell) == ShotResult.SUNK ? targetBoard.getShipAt(cell) : null;
+    }
+
+    private void fireInBatch(int cell) {
+        batchShots++;
+        Ship sunk = shoot(cpuBoard, cell, true);
+        if (sunk != null) batchSunk.add(sunk);
+    }
+
+    private static int sinkDelta(Ship ship, boolean isPlayerShooter) {
+        return isPlayerShooter ? ship.getReward() : -(ship.getReward() / 3);
+    }
+
+    /**
+     * Fires a powerup at the CPU board. Every cell it covers is resolved as one
+     * batch: ships sunk along the way are paid out and reported together in a
+     * single {@link GameListener#onSinks} event, followed by one save.
+     */
+    public void usePowerup(PowerupType type, char row, int col) {
+        Powerup powerup = PowerupRegistry.get(type);
+        if (powerup == null || inventory.get(type) <= 0) return;
+        long t0 = Metrics.start();
+        PowerupEvent event = new PowerupEvent();
+        event.begin();
+        try {
+            firePowerup(powerup, type, row, col, event);
+        } finally {
+            Metrics.POWERUP.stop(t0);
+        }
+        if (event.shouldCommit()) {
+            event.powerup = type.name();
+            event.row = row - 'A';
+            event.col = col;
+            event.commit();
+        }
+    }
+
+    private void firePowerup(Powerup powerup, PowerupType type, char row, int col, PowerupEvent event) {
+        inventory.add(type, -1);
+        if (journal != null) journal.powerup(type);
+
+        batchSunk.clear();
+        batchShots = 0;
+        powerup.fire(powerupTarget, row - 'A', col);
+        event.cellsFired = batchShots;
+        event.shipsSunk = batchSunk.size();
+
+        if (!batchSunk.isEmpty()) {
+            int delta = 0;
+            for (Ship s : batchSunk) {
+                int shipDelta = sinkDelta(s, true);
+                delta += shipDelta;
+                commitSink(new SinkEvent(), s, true, shipDelta, type);
+            }
+            event.moneyDelta = delta;
+            playerMoney += delta;
+            publish();
+            listener.onSinks(List.copyOf(batchSunk), true, delta);
+            batchSunk.clear();
+        }
+        saveData();
+    }
+
+    // What powerup effects get to work with; their shots join the current batch
+    private final class Target implements PowerupTarget {
+        @Override
+        public GameVariant variant() { return variant; }
+
+        @Override
+        public AreaOfEffect area() { return area; }
+
+        @Override
+        public RandomGenerator random() { return random; }
+
+        @Override
+        public Board board() { return cpuBoard; }
+
+        @Override
+        public void shoot(int cell) { fireInBatch(cell); }
+
+        @Override
+        public IntConsumer shots() { return fireAtCpu; }
+
+        @Override
+        public void skipCpuTurn() { setState(currentState, true); }
+
+        @Override
+        public void alert(String title, String content) { listener.onAlert(title, content); }
+    }
+
+    public void cpuTurn() {
+        if (currentState == GameState.GAME_OVER) return;
+        long t0 = Metrics.start();
+        CpuTurnEvent event = new CpuTurnEvent();
+        event.begin();
+        boolean skipped = skipCpuTurn;
+        int cell;
+        try {
+            cell = takeCpuTurn();
+        } finally {
+            Metrics.CPU_TURN.stop(t0);
+        }
+        if (event.shouldCommit()) {
+            event.strategy = cpuStrategy.getClass().getSimpleName();
+            event.cell = cell;
+            event.result = skipped ? "skipped" : cell < 0 ? "none" : shotResult(playerBoard, cell);
+            event.commit();
+        }
+    }
+
+    // Returns the cell fired at, or -1 if the turn was skipped or nothing was left to shoot
+    private int takeCpuTurn() {
+        if (skipCpuTurn) {
+            setState(currentState, false);
+            refresh();
+            return -1;
+        }
+
+        int cell = cpuStrategy.nextShot();
+        if (cell < 0) return -1;
+
+        fireAtPlayer(cell);
+        if (recorder != null) recorder.endTurn(Replay.KIND_CPU, cell, playerMoney);
+
+        refresh();
+        if (playerBoard.allShipsSunk()) {
+            setState(GameState.GAME_OVER, skipCpuTurn);
+            listener.onGameOver(false, 0);
+            saveData();
+        }
+        return cell;
+    }
+
+    private void fireAtPlayer(int cell) {
+        boolean hit = playerBoard.getStatus(cell) == 3;
+        processShot(playerBoard, cell, false);
+        Ship s = hit ? playerBoard.getShipAt(cell) : null;
+        cpuStrategy.onShotResult(cell, hit, s != null && s.isSunk() ? s : null);
+    }
+
+    public boolean buyItem(PowerupType item) {
+        Powerup powerup = PowerupRegistry.get(item);
+        if (powerup == null) return false;
+        int cost = powerup.cost();
+        if (playerMoney >= cost) {
+            playerMoney -= cost;
+            inventory.add(item, 1);
+            if (journal != null) {
+                journal.purchase(item);
+                journal.commit(this);
+            }
+            saveData();
+            refresh();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean checkWinCondition() {
+        refresh();
+        if (cpuBoard.allShipsSunk()) {
+            playerMoney += VICTORY_BONUS;
+            if (journal != null) journal.money(VICTORY_BONUS);
+            setState(GameState.GAME_OVER, skipCpuTurn);
+            saveData();
+            listener.onGameOver(true, VICTORY_BONUS);
+            refresh();
+            return true;
+        }
+        return false;
+    }
+
+    private void setState(GameState state, boolean skip) {
+        if (state == GameState.GAME_OVER && manualFleet) {
+            // Only once the game is over, so the CPU never learns from the fleet it is shooting at
+            if (placementStats != null) placementStats.record(playerBoard);
+            manualFleet = false;
+        }
+        currentState = state;
+        skipCpuTurn = skip;
+        if (journal != null) journal.state(state, skip);
+        publish();
+    }
+
+    private void commitJournal() {
+        if (journal == null) return;
+        long t0 = Metrics.start();
+        journal.commit(this);
+        Metrics.JOURNAL_COMMIT.stop(t0);
+    }
+
+    private void saveData() {
+        publish();
+        long t0 = Metrics.start();
+        listener.onSaveRequested(inventory, playerMoney);
+        Metrics.SAVE_REQUEST.stop(t0);
+    }
+
+    private void refresh() {
+        publish();
+        listener.onRefresh();
+    }
+
+    /** Publishes the current money, inventory and state if they changed since the last snapshot. */
+    void publish() {
+        GameSnapshot last = snapshot.get();
+        if (last != null && last.sameAs(playerMoney, inventory, currentState, skipCpuTurn)) return;
+        snapshot.set(new GameSnapshot(last == null ? 1 : last.version() + 1, playerMoney, inventory, currentState, skipCpuTurn));
+    }
+
+    public GameVariant getVariant() { return variant; }
+    public Board getPlayerBoard() { return playerBoard; }
+    public Board getCpuBoard() { return cpuBoard; }
+
+    /** The latest published state; safe to call from any thread. */
+    public GameSnapshot snapshot() { return snapshot.get(); }
+
+    // Live values, for the game thread only; other threads should use snapshot()
+    public int getPlayerMoney() { return playerMoney; }
+    public Inventory getInventory() { return inventory; }
+
+    public GameState getGameState() {
+        return currentState;
+    }
+
+    boolean isSkipCpuTurn() { return skipCpuTurn; }
+
+    // Journal replay: the same state changes as live play, without listener events or saves.
+    // Only valid before a listener or journal is attached.
+
+    void restore(int money, Inventory savedInventory, GameState state, boolean skip) {
+        playerMoney = money;
+        inventory.setAll(savedInventory);
+        currentState = state;
+        skipCpuTurn = skip;
+    }
+
+    /** Re-teaches the CPU strategy every shot already on the player's board, after a restore. */
+    void rebuildCpuStrategy() {
+        cpuStrategy.reset();
+        playerBoard.forEachShot(cell -> {
+            if (playerBoard.getStatus(cell) == 1) cpuStrategy.onShotResult(cell, false, null);
+        });
+        // Sunk ships before damaged ones: reporting a sink drops the pending targets
+        for (Ship s : playerBoard.getShips()) {
+            if (!s.isSunk()) continue;
+            for (int i = 0; i < s.getCellCount(); i++) {
+                cpuStrategy.onShotResult(s.getCells()[i], true, i == s.getCellCount() - 1 ? s : null);
+            }
+        }
+        for (Ship s : playerBoard.getShips()) {
+            if (s.isSunk()) continue;
+            for (int i = 0; i < s.getCellCount(); i++) {
+                if (playerBoard.getStatus(s.getCells()[i]) == 2) cpuStrategy.onShotResult(s.getCells()[i], true, null);
+            }
+        }
+    }
+
+    void replayPlacement(int fleetIndex, int placement) {
+        ShipDef def = variant.fleet().get(fleetIndex);
+        playerBoard.removeShip(def.name());
+        if (placement >= 0) {
+            int start = PlacementGenerator.startCell(placement);
+            playerBoard.placeShip(def, start / variant.width(), start % variant.width(), PlacementGenerator.isHorizontal(placement));
+        }
+    }
+
+    void replayShot(boolean atCpu, int cell) {
+        if (atCpu) processShot(cpuBoard, cell, true);
+        else fireAtPlayer(cell);
+    }
+
+    void replayPowerup(PowerupType item) {
+        inventory.add(item, -1);
+    }
+
+    void replayPurchase(PowerupType item) {
+        playerMoney -= PowerupRegistry.get(item).cost();
+        inventory.add(item, 1);
+    }
+
+    void replayState(GameState state, boolean skip) {
+        currentState = state;
+        skipCpuTurn = skip;
+    }
+
+    void replayMoney(int delta) {
+        playerMoney += delta;
+    }
+}
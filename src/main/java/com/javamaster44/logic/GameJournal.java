@@ -0,0 +1,520 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+import com.javamaster44.model.Ship;
+import com.javamaster44.model.ShipDef;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe record of the game in progress, so a restart resumes the same match.
+ * <p>
+ * The snapshot file holds the whole game (both fleets, every resolved cell, money,
+ * inventory, state); the journal file is an append-only log of the events since:
+ * player placements, shots, powerups, purchases, state changes and bonuses.
+ * A snapshot is taken at every new game, and is on disk before play goes on,
+ * since nothing else records the new fleets. Another is taken every
+ * {@link #SNAPSHOT_INTERVAL} events so resuming replays little more than that;
+ * it is encoded on the game thread (ships and fired cells only) but written and
+ * fsynced by a background thread, and the next commit after it lands cuts the
+ * journal back to the records it doesn't cover. Until then the old snapshot and
+ * the uncut journal still restore the same game.
+ * <p>
+ * Journal layout: a header {@code MAGIC, baseSeq} followed by records of
+ * {@code [length u8][type u8][varint payload][crc u16]}, the check being the low
+ * 16 bits of a CRC32 over length, type and payload. Events are buffered and
+ * handed to the {@link FileChannel} once per engine action. A torn or corrupt
+ * tail (crash mid-append) ends replay at the last good record and is cut off.
+ */
+public class GameJournal {
+    private static final int MAGIC = 0x424A5232;      // "BJR2"
+    private static final int SNAP_MAGIC = 0x42534E50; // "BSNP"
+    private static final int SNAP_VERSION = 2;
+    private static final int HEADER_BYTES = 12;
+    public static final int SNAPSHOT_INTERVAL = 1024;
+
+    private static final byte PLACE = 1, SHOT = 2, POWERUP = 3, PURCHASE = 4, STATE = 5, MONEY = 6;
+    private static final int MAX_RECORD = 255;
+
+    // Snapshot files are written in request order, off the game thread
+    private static final ExecutorService SNAPSHOT_WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journal-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // A snapshot that has reached the disk, and the journal position (counting dropped bytes) it covers up to
+    private record Durable(long seq, long position) {}
+
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final byte[] record = new byte[MAX_RECORD];
+    private int recordLength;
+    private final CRC32 crc = new CRC32();
+    // Events recorded so far, counting those folded into the snapshot
+    private long seq;
+    // Events covered by the newest snapshot taken, and by the journal's header
+    private long snapshotSeq;
+    private long journalBaseSeq;
+    // Journal bytes cut off by compaction, so positions stay comparable across it
+    private long droppedBytes;
+    private volatile Durable durable;
+    private boolean failed;
+
+    public GameJournal(Path journalFile, Path snapshotFile) {
+        this.journalFile = journalFile;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Restores the last recorded game into {@code engine} and gets ready to append.
+     * Call before attaching a listener or the journal itself to the engine. Returns
+     * true if a game was restored; otherwise the engine is untouched and a fresh
+     * snapshot of it becomes the baseline. Files that can't be read or decoded are
+     * deleted and the engine is put back as it was, so a bad journal can't break
+     * every launch; recording is then off until the next start.
+     */
+    public boolean open(GameEngine engine) {
+        int money = engine.getPlayerMoney();
+        Inventory inventory = new Inventory(engine.getInventory());
+        try {
+            boolean restored = readSnapshot(engine);
+            channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (!restored) {
+                writeBaseline(engine);
+                return false;
+            }
+            replay(engine);
+            engine.rebuildCpuStrategy();
+            engine.publish();
+            return !engine.getCpuBoard().getShips().isEmpty();
+        } catch (IOException e) {
+            // Possibly halfway through replay: don't leave a partial game behind
+            e.printStackTrace();
+            discard(engine, money, inventory);
+            return false;
+        } catch (RuntimeException e) {
+            // Records that pass their CRC but decode into nonsense (unknown type, ship or state)
+            e.printStackTrace();
+            discard(engine, money, inventory);
+            return false;
+        }
+    }
+
+    private void discard(GameEngine engine, int money, Inventory inventory) {
+        failed = true;
+        engine.getPlayerBoard().reset();
+        engine.getCpuBoard().reset();
+        engine.restore(money, inventory, GameEngine.GameState.SETUP, false);
+        engine.rebuildCpuStrategy();
+        engine.publish();
+        try {
+            if (channel != null) channel.close();
+            Files.deleteIfExists(journalFile);
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // --- Recording, called by the engine as things happen
+
+    void placement(int fleetIndex, int placement) {
+        begin(PLACE);
+        putVarint(fleetIndex);
+        putVarint(placement + 1); // 0 = ship removed, not re-placed
+        end();
+    }
+
+    void shot(boolean atCpu, int cell) {
+        begin(SHOT);
+        putVarint(cell << 1 | (atCpu ? 1 : 0));
+        end();
+    }
+
+    void powerup(PowerupType item) {
+        begin(POWERUP);
+        putVarint(item.ordinal());
+        end();
+    }
+
+    void purchase(PowerupType item) {
+        begin(PURCHASE);
+        putVarint(item.ordinal());
+        end();
+    }
+
+    void state(GameEngine.GameState state, boolean skipCpuTurn) {
+        begin(STATE);
+        putVarint(state.ordinal() << 1 | (skipCpuTurn ? 1 : 0));
+        end();
+    }
+
+    void money(int delta) {
+        begin(MONEY);
+        putVarint(Varint.zigzag(delta));
+        end();
+    }
+
+    /** End of an engine action: hands buffered events to the file, snapshotting if due. */
+    void commit(GameEngine engine) {
+        if (failed) return;
+        try {
+            drain();
+            if (seq - snapshotSeq >= SNAPSHOT_INTERVAL) takeSnapshot(engine);
+            compact();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /** Folds the whole game into a new snapshot and empties the journal; call when a new game starts. */
+    void snapshot(GameEngine engine) {
+        if (failed) return;
+        try {
+            writeBaseline(engine);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void begin(byte type) {
+        record[1] = type;
+        recordLength = 2;
+    }
+
+    private void end() {
+        int bodyLength = recordLength - 1;
+        record[0] = (byte) bodyLength;
+        crc.reset();
+        crc.update(record, 0, recordLength);
+        int check = (int) crc.getValue();
+        seq++;
+        if (failed) return;
+        try {
+            if (buffer.remaining() < recordLength + 2) drain();
+            buffer.put(record, 0, recordLength).putShort((short) check);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            record[recordLength++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        record[recordLength++] = (byte) value;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void fail(IOException e) {
+        // A broken journal must not take the game down with it; play on unrecorded
+        e.printStackTrace();
+        failed = true;
+    }
+
+    // --- Replay
+
+    private void replay(GameEngine engine) throws IOException {
+        long size = channel.size();
+        ByteBuffer in = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        channel.read(in, 0);
+        in.flip();
+
+        long baseSeq = -1;
+        if (in.remaining() >= HEADER_BYTES && in.getInt() == MAGIC) baseSeq = in.getLong();
+        if (baseSeq < 0 || baseSeq > snapshotSeq) {
+            // Missing header, or a journal newer than the snapshot it should follow
+            seq = snapshotSeq;
+            resetJournal();
+            return;
+        }
+        journalBaseSeq = baseSeq;
+
+        long good = HEADER_BYTES;
+        long recordSeq = baseSeq;
+        byte[] body = new byte[MAX_RECORD];
+        while (in.remaining() >= 1) {
+            int bodyLength = in.get(in.position()) & 0xFF;
+            if (bodyLength == 0 || in.remaining() < bodyLength + 3) break;
+            in.get(body, 0, bodyLength + 1);
+            crc.reset();
+            crc.update(body, 0, bodyLength + 1);
+            if ((short) crc.getValue() != in.getShort()) break;
+            recordSeq++;
+            if (recordSeq > snapshotSeq) apply(engine, body, bodyLength + 1);
+            good = in.position();
+        }
+        seq = recordSeq;
+        channel.truncate(good);
+        channel.position(good);
+    }
+
+    private void apply(GameEngine engine, byte[] body, int length) {
+        int[] pos = {2};
+        switch (body[1]) {
+            case PLACE -> {
+                int fleetIndex = getVarint(body, pos);
+                engine.replayPlacement(fleetIndex, getVarint(body, pos) - 1);
+            }
+            case SHOT -> {
+                int v = getVarint(body, pos);
+                engine.replayShot((v & 1) != 0, v >>> 1);
+            }
+            case POWERUP -> engine.replayPowerup(PowerupType.fromOrdinal(getVarint(body, pos)));
+            case PURCHASE -> engine.replayPurchase(PowerupType.fromOrdinal(getVarint(body, pos)));
+            case STATE -> {
+                int v = getVarint(body, pos);
+                engine.replayState(GameEngine.GameState.values()[v >>> 1], (v & 1) != 0);
+            }
+            case MONEY -> {
+                int v = getVarint(body, pos);
+                engine.replayMoney(Varint.unzigzag(v));
+            }
+            default -> throw new IllegalStateException("Unknown journal record " + body[1]);
+        }
+    }
+
+    private static int getVarint(byte[] b, int[] pos) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b[pos[0]++];
+            value |= (x & 0x7F) << shift;
+            if (x >= 0) return value;
+        }
+    }
+
+    // --- Snapshots
+
+    private void writeBaseline(GameEngine engine) throws IOException {
+        buffer.clear(); // everything pending is about to be folded in
+        byte[] bytes = encodeSnapshot(engine);
+        // Queued behind any background snapshot, so an older one can't land on top of this
+        try {
+            SNAPSHOT_WRITER.submit(() -> {
+                writeSnapshotFile(bytes);
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing a snapshot");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+        snapshotSeq = seq;
+        // A crash before this point leaves journal records the snapshot already covers; replay skips them
+        resetJournal();
+    }
+
+    private void takeSnapshot(GameEngine engine) throws IOException {
+        // The journal keeps every event up to here until the snapshot lands; replay skips the ones it covers
+        drain();
+        byte[] bytes = encodeSnapshot(engine);
+        long covered = seq, position = channel.position() + droppedBytes;
+        snapshotSeq = seq;
+        SNAPSHOT_WRITER.execute(() -> {
+            try {
+                writeSnapshotFile(bytes);
+                durable = new Durable(covered, position);
+            } catch (IOException e) {
+                // The previous snapshot and the uncut journal still restore the game
+                e.printStackTrace();
+            }
+        });
+    }
+
+    // Once a background snapshot is on disk, drops the journal records it covers
+    private void compact() throws IOException {
+        Durable d = durable;
+        if (d == null || d.seq() <= journalBaseSeq) return;
+        long from = d.position() - droppedBytes;
+        ByteBuffer out = ByteBuffer.allocate((int) (HEADER_BYTES + channel.size() - from));
+        out.putInt(MAGIC).putLong(d.seq());
+        for (long at = from; out.hasRemaining(); ) {
+            int n = channel.read(out, at);
+            if (n < 0) break;
+            at += n;
+        }
+        out.flip();
+        // Rewritten beside the journal and renamed over it, so a crash leaves one whole journal or the other
+        Path tmp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) ch.write(out);
+        }
+        channel.close();
+        try {
+            Files.move(tmp, journalFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, journalFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        droppedBytes += from - HEADER_BYTES;
+        journalBaseSeq = d.seq();
+    }
+
+    private byte[] encodeSnapshot(GameEngine engine) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        GameVariant variant = engine.getVariant();
+        out.writeInt(SNAP_MAGIC);
+        out.writeByte(SNAP_VERSION);
+        out.writeLong(seq);
+        out.writeInt(fingerprint(variant));
+        out.writeInt(engine.getPlayerMoney());
+        out.writeByte(engine.getGameState().ordinal());
+        out.writeBoolean(engine.isSkipCpuTurn());
+        // Counts by PowerupType ordinal, so types added later read as 0
+        PowerupType[] types = PowerupType.values();
+        out.writeByte(types.length);
+        for (PowerupType type : types) out.writeInt(engine.getInventory().get(type));
+        writeBoard(out, engine.getPlayerBoard());
+        writeBoard(out, engine.getCpuBoard());
+        crc.reset();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private void writeSnapshotFile(byte[] bytes) throws IOException {
+        Path tmp = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(), snapshotFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer data = ByteBuffer.wrap(bytes);
+                while (data.hasRemaining()) ch.write(data);
+                ch.force(true);
+            }
+            try {
+                Files.move(tmp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void resetJournal() throws IOException {
+        journalBaseSeq = snapshotSeq;
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putLong(snapshotSeq).flip();
+        channel.position(0);
+        while (header.hasRemaining()) channel.write(header);
+    }
+
+    // Ships as (fleet index, placement), then every fired cell in ascending order as gaps.
+    // Both come from the ships and the board's touched pages, never a pass over every cell.
+    private static void writeBoard(DataOutputStream out, Board board) throws IOException {
+        GameVariant variant = board.getVariant();
+        Map<String, Integer> fleetIndex = new HashMap<>();
+        for (int i = 0; i < variant.fleet().size(); i++) fleetIndex.put(variant.fleet().get(i).name(), i);
+
+        Varint.write(out, board.getShips().size());
+        for (Ship s : board.getShips()) {
+            int[] cells = s.getCells();
+            boolean horizontal = s.getCellCount() == 1 || (cells[1] == cells[0] + 1 && variant.width() > 1);
+            Varint.write(out, fleetIndex.get(s.getName()));
+            Varint.write(out, cells[0] << 1 | (horizontal ? 1 : 0));
+        }
+        int[] n = {0};
+        board.forEachShot(cell -> n[0]++);
+        int[] fired = new int[n[0]];
+        n[0] = 0;
+        board.forEachShot(cell -> fired[n[0]++] = cell);
+        Varint.write(out, fired.length);
+        for (int i = 0, last = -1; i < fired.length; last = fired[i++]) {
+            Varint.write(out, fired[i] - last);
+        }
+    }
+
+    private boolean readSnapshot(GameEngine engine) throws IOException {
+        if (!Files.exists(snapshotFile)) return false;
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        if (bytes.length < 4) return false;
+        crc.reset();
+        crc.update(bytes, 0, bytes.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+            System.err.println("Saved game corrupted, starting fresh.");
+            return false;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != SNAP_MAGIC || in.readByte() != SNAP_VERSION) return false;
+        long snapSeq = in.readLong();
+        // Saved under a different board or fleet: nothing to resume
+        if (in.readInt() != fingerprint(engine.getVariant())) return false;
+        int money = in.readInt();
+        GameEngine.GameState state = GameEngine.GameState.values()[in.readByte()];
+        boolean skip = in.readBoolean();
+        Inventory inventory = new Inventory();
+        for (int i = 0, n = in.readUnsignedByte(); i < n; i++) {
+            PowerupType type = PowerupType.fromOrdinal(i);
+            int count = in.readInt();
+            if (type != null) inventory.set(type, count);
+        }
+
+        engine.restore(money, inventory, state, skip);
+        readBoard(in, engine.getPlayerBoard());
+        readBoard(in, engine.getCpuBoard());
+        seq = snapshotSeq = snapSeq;
+        return true;
+    }
+
+    private static void readBoard(DataInputStream in, Board board) throws IOException {
+        GameVariant variant = board.getVariant();
+        board.reset();
+        for (int i = Varint.read(in); i > 0; i--) {
+            ShipDef def = variant.fleet().get(Varint.read(in));
+            int placement = Varint.read(in);
+            int start = PlacementGenerator.startCell(placement);
+            board.placeShip(def, start / variant.width(), start % variant.width(), PlacementGenerator.isHorizontal(placement));
+        }
+        for (int i = Varint.read(in), cell = -1; i > 0; i--) {
+            cell += Varint.read(in);
+            if (board.getStatus(cell) == 3) {
+                board.setStatus(cell, 2);
+                board.getShipAt(cell).hit();
+            } else {
+                board.setStatus(cell, 1);
+            }
+        }
+    }
+
+    static int fingerprint(GameVariant variant) {
+        int h = variant.width() * 31 + variant.height();
+        for (ShipDef def : variant.fleet()) {
+            h = h * 31 + def.name().hashCode();
+            h = h * 31 + def.length();
+            h = h * 31 + def.reward();
+        }
+        return h;
+    }
+}
@@ -0,0 +1,38 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Ship;
+
+import java.util.List;
+
+/**
+ * Receives events from a {@link GameEngine}. All methods default to no-ops so
+ * headless callers only implement what they need.
+ */
+public interface GameListener {
+    GameListener NONE = new GameListener() {};
+
+    /** Boards, money or inventory changed and should be redrawn. */
+    default void onRefresh() {}
+
+    /** A ship was sunk. {@code moneyDelta} is the reward (player shooter) or the negative penalty. */
+    default void onSink(Ship ship, boolean isPlayerShooter, int moneyDelta) {}
+
+    /**
+     * Several ships sunk by one action (a powerup); {@code moneyDelta} is the total.
+     * By default reported to {@link #onSink} one ship at a time.
+     */
+    default void onSinks(List<Ship> ships, boolean isPlayerShooter, int moneyDelta) {
+        for (Ship s : ships) {
+            onSink(s, isPlayerShooter, isPlayerShooter ? s.getReward() : -(s.getReward() / 3));
+        }
+    }
+
+    /** The game ended. {@code moneyDelta} is the victory bonus, 0 on a loss. */
+    default void onGameOver(boolean playerWon, int moneyDelta) {}
+
+    /** Informational message, e.g. a powerup side effect. */
+    default void onAlert(String title, String content) {}
+
+    /** Money or inventory changed and the profile should be persisted. */
+    default void onSaveRequested(Inventory inventory, int money) {}
+}
@@ -0,0 +1,54 @@
+package com.javamaster44.logic;
+
+/**
+ * Immutable copy of a {@link GameEngine}'s money, inventory and turn state, as
+ * published after each change. Any thread may read one without locking and
+ * always sees the four values as they stood together. {@link #version()}
+ * increases with every publication, so readers can skip work when it hasn't moved.
+ */
+public final class GameSnapshot {
+    private static final PowerupType[] TYPES = PowerupType.values();
+
+    private final long version;
+    private final int money;
+    private final int[] counts;
+    private final GameEngine.GameState state;
+    private final boolean skipCpuTurn;
+
+    GameSnapshot(long version, int money, Inventory inventory, GameEngine.GameState state, boolean skipCpuTurn) {
+        this.version = version;
+        this.money = money;
+        this.counts = new int[TYPES.length];
+        for (PowerupType type : TYPES) counts[type.ordinal()] = inventory.get(type);
+        this.state = state;
+        this.skipCpuTurn = skipCpuTurn;
+    }
+
+    public long version() { return version; }
+    public int money() { return money; }
+    public GameEngine.GameState state() { return state; }
+    public boolean skipCpuTurn() { return skipCpuTurn; }
+    public int count(PowerupType type) { return counts[type.ordinal()]; }
+
+    /** A fresh, mutable copy of the inventory. */
+    public Inventory inventory() {
+        Inventory inventory = new Inventory();
+        for (PowerupType type : TYPES) inventory.set(type, counts[type.ordinal()]);
+        return inventory;
+    }
+
+    // Same values, ignoring the version
+    boolean sameAs(int money, Inventory inventory, GameEngine.GameState state, boolean skipCpuTurn) {
+        if (this.money != money || this.state != state || this.skipCpuTurn != skipCpuTurn) return false;
+        for (PowerupType type : TYPES) {
+            if (counts[type.ordinal()] != inventory.get(type)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "GameSnapshot{v" + version + ", $" + money + ", " + state + (skipCpuTurn ? " (skip)" : "")
+                + ", " + inventory() + "}";
+    }
+}
@@ -0,0 +1,89 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.CellMask;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The original CPU targeting: fires at cells in a random order until it hits,
+ * then works the neighbours of each hit until the ship sinks. Kept as the
+ * baseline for {@link DensityStrategy}.
+ * <p>
+ * The random order is a lazy Fisher-Yates shuffle whose swaps live in a sparse
+ * map, so memory and time per shot follow the shots taken, not the board area.
+ */
+public class HuntTargetStrategy implements ShotStrategy {
+    private final GameVariant variant;
+    private final IntIntMap swaps = new IntIntMap();
+    private final CellMask fired;
+    private final CellMask queued;
+    private int[] targetStack = new int[16];
+    private int stackSize;
+    private int next;
+    private final RandomGenerator random;
+
+    public HuntTargetStrategy(GameVariant variant, RandomGenerator random) {
+        this.variant = variant;
+        this.random = random;
+        this.fired = new CellMask(variant.cells());
+        this.queued = new CellMask(variant.cells());
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        swaps.clear();
+        fired.clearAll();
+        queued.clearAll();
+        stackSize = 0;
+        next = 0;
+    }
+
+    @Override
+    public int nextShot() {
+        while (stackSize > 0) {
+            int cell = targetStack[--stackSize];
+            queued.clear(cell);
+            if (!fired.get(cell)) return cell;
+        }
+        int cells = variant.cells();
+        while (next < cells) {
+            // Swap a random remaining position into slot 'next'; untouched slots hold their own index
+            int j = next + random.nextInt(cells - next);
+            int cell = swaps.getOrDefault(j, j);
+            swaps.put(j, swaps.getOrDefault(next, next));
+            next++;
+            if (!fired.get(cell)) return cell;
+        }
+        return -1;
+    }
+
+    @Override
+    public void onShotResult(int cell, boolean hit, Ship sunk) {
+        fired.set(cell);
+        if (sunk != null) {
+            clearStack();
+        } else if (hit) {
+            int width = variant.width();
+            int r = cell / width, c = cell % width;
+            if (c + 1 < width) push(cell + 1);
+            if (c > 0) push(cell - 1);
+            if (r + 1 < variant.height()) push(cell + width);
+            if (r > 0) push(cell - width);
+        }
+    }
+
+    private void push(int cell) {
+        if (fired.get(cell) || queued.get(cell)) return;
+        queued.set(cell);
+        if (stackSize == targetStack.length) targetStack = Arrays.copyOf(targetStack, stackSize * 2);
+        targetStack[stackSize++] = cell;
+    }
+
+    private void clearStack() {
+        while (stackSize > 0) queued.clear(targetStack[--stackSize]);
+    }
+}
@@ -0,0 +1,52 @@
+package com.javamaster44.logic;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/** How many of each powerup the player holds: one int per {@link PowerupType}, by ordinal. */
+public final class Inventory {
+    private static final PowerupType[] TYPES = PowerupType.values();
+
+    private final int[] counts = new int[TYPES.length];
+
+    public Inventory() {}
+
+    public Inventory(Inventory other) {
+        setAll(other);
+    }
+
+    public int get(PowerupType type) {
+        return counts[type.ordinal()];
+    }
+
+    public void set(PowerupType type, int count) {
+        counts[type.ordinal()] = count;
+    }
+
+    public void add(PowerupType type, int delta) {
+        counts[type.ordinal()] += delta;
+    }
+
+    public void setAll(Inventory other) {
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Inventory other && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+        for (PowerupType type : TYPES) {
+            if (counts[type.ordinal()] != 0) sj.add(type.displayName() + "=" + counts[type.ordinal()]);
+        }
+        return sj.toString();
+    }
+}
@@ -0,0 +1,262 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+/**
+ * Precomputed CPU openings for one {@link GameVariant}, learned from sampled
+ * fleets. Fleets are placed uniformly at random, so a large sample of
+ * {@link PlacementGenerator} layouts stands in for every game the CPU will
+ * face. Each next shot of the opening is the cell covered by the most sampled
+ * layouts that every earlier shot missed, so while the CPU keeps missing it
+ * plays the sequence most likely to find a ship soonest.
+ * <p>
+ * Books live in {@code battleship.bookDir} (default {@code books}) as
+ * {@code <w>x<h>-<fingerprint>.book} and are memory mapped read-only.
+ * {@link #forVariant} loads a book in the background the first time a variant
+ * asks for it (taking the bundled standard book, or learning a new one if there
+ * is no file yet) and keeps the {@value #MAX_LOADED} most recently used; colder
+ * ones are dropped and unmapped once nothing plays with them. Learning costs
+ * time and memory in proportion to the board, so boards over
+ * {@value #MAX_LEARNED_CELLS} cells only get a book that was built for them
+ * beforehand with {@code BookBuilder}.
+ */
+public final class OpeningBook {
+    private static final int MAGIC = 0x424F4F4B; // "BOOK"
+    private static final int VERSION = 2;
+    // magic, version, fingerprint, samples, width, height, opening length
+    private static final int HEADER_INTS = 7;
+    private static final int MAX_LOADED = 4;
+    public static final int DEFAULT_SAMPLES = 200_000;
+    public static final int DEFAULT_OPENING = 64;
+    // Keeps learning to roughly this many sampled ship cells, whatever the board
+    private static final long SAMPLE_CELL_BUDGET = 8_000_000;
+    // Largest board a book is learned for on the fly: 256x256
+    public static final int MAX_LEARNED_CELLS = 1 << 16;
+    private static final String BUNDLED = "standard.book";
+
+    private static final Map<Integer, CompletableFuture<OpeningBook>> LOADED = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CompletableFuture<OpeningBook>> eldest) {
+            return size() > MAX_LOADED;
+        }
+    };
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "book-loader");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final ByteBuffer data;
+    private final int samples;
+    private final int length;
+    private final int cells;
+
+    private OpeningBook(ByteBuffer data) throws IOException {
+        this.data = data.order(ByteOrder.BIG_ENDIAN);
+        if (data.capacity() < HEADER_INTS * 4 || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("not an opening book");
+        }
+        this.samples = data.getInt(12);
+        this.cells = data.getInt(16) * data.getInt(20);
+        this.length = data.getInt(24);
+        if (length < 0 || length > cells || data.capacity() != (HEADER_INTS + (long) length) * 4) {
+            throw new IOException("truncated opening book");
+        }
+        for (int i = 0; i < length; i++) {
+            if (shot(i) < 0 || shot(i) >= cells) throw new IOException("opening book shot off the board");
+        }
+    }
+
+    public int samples() { return samples; }
+
+    /** Number of shots in the opening. */
+    public int length() { return length; }
+
+    /** The {@code i}-th opening shot, to play while every shot before it missed. */
+    public int shot(int i) {
+        return data.getInt((HEADER_INTS + i) * 4);
+    }
+
+    /**
+     * The book for {@code variant}, loading or learning it on a background thread
+     * the first time. Completes exceptionally if it can't be had.
+     */
+    public static CompletableFuture<OpeningBook> forVariant(GameVariant variant) {
+        int key = GameJournal.fingerprint(variant);
+        synchronized (LOADED) {
+            CompletableFuture<OpeningBook> book = LOADED.get(key);
+            if (book == null) {
+                book = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return load(variant);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, LOADER);
+                LOADED.put(key, book);
+            }
+            return book;
+        }
+    }
+
+    /** Where the game keeps the book for {@code variant}. */
+    public static Path file(GameVariant variant) {
+        return Path.of(System.getProperty("battleship.bookDir", "books"))
+                .resolve(variant.width() + "x" + variant.height() + "-" + Integer.toHexString(GameJournal.fingerprint(variant)) + ".book");
+    }
+
+    private static OpeningBook load(GameVariant variant) throws IOException {
+        Path file = file(variant);
+        try {
+            OpeningBook book = open(file);
+            if (book.matches(variant)) return book;
+        } catch (NoSuchFileException e) {
+            // First game on this variant
+        } catch (IOException e) {
+            System.err.println("Relearning opening book " + file.getFileName() + ": " + e.getMessage());
+        }
+        if (!variant.equals(GameVariant.STANDARD) && variant.cells() > MAX_LEARNED_CELLS) {
+            throw new IOException("No opening book for " + variant.width() + "x" + variant.height()
+                    + " and too big to learn one now; build it with BookBuilder");
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        if (variant.equals(GameVariant.STANDARD) && extractBundled(file)) return open(file);
+
+        int samples = (int) Math.max(1_000, Math.min(DEFAULT_SAMPLES, SAMPLE_CELL_BUDGET / fleetCells(variant)));
+        learn(variant, samples, DEFAULT_OPENING, new SplittableRandom().nextLong()).write(file);
+        return open(file);
+    }
+
+    private boolean matches(GameVariant variant) {
+        return data.getInt(8) == GameJournal.fingerprint(variant) && cells == variant.cells();
+    }
+
+    private static boolean extractBundled(Path file) throws IOException {
+        try (InputStream in = OpeningBook.class.getResourceAsStream(BUNDLED)) {
+            if (in == null) return false;
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        }
+    }
+
+    /** Maps a book file read-only. */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping outlives the channel
+            return new OpeningBook(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** Writes the book atomically; {@link #open} maps it back. */
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer copy = data.duplicate().clear();
+            while (copy.hasRemaining()) ch.write(copy);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Learns a book from {@code samples} random fleets. The opening is built
+     * greedily: take the cell covered by the most layouts still standing, strike
+     * out every layout it hits, repeat. It stops after {@code maxShots} shots or
+     * once every sampled layout has been hit.
+     */
+    public static OpeningBook learn(GameVariant variant, int samples, int maxShots, long seed) {
+        int cells = variant.cells();
+        int width = variant.width();
+        int[] lengths = variant.fleet().stream().mapToInt(d -> d.length()).toArray();
+        int[][] layouts = new PlacementGenerator(variant).sampleMany(samples, seed);
+
+        // Layouts covering each cell, as a CSR index (ships never overlap, so each cell at most once per layout)
+        int[] counts = new int[cells + 1];
+        forEachCell(layouts, lengths, width, (l, cell) -> counts[cell + 1]++);
+        for (int c = 0; c < cells; c++) counts[c + 1] += counts[c];
+        int[] start = counts.clone();
+        int[] covering = new int[counts[cells]];
+        int[] fill = new int[cells];
+        forEachCell(layouts, lengths, width, (l, cell) -> covering[start[cell] + fill[cell]++] = l);
+
+        int[] remaining = new int[cells];
+        for (int c = 0; c < cells; c++) remaining[c] = start[c + 1] - start[c];
+
+        boolean[] struck = new boolean[samples];
+        int[] opening = new int[Math.min(maxShots, cells)];
+        int length = 0;
+        while (length < opening.length) {
+            int best = -1;
+            for (int c = 0; c < cells; c++) {
+                if (remaining[c] > 0 && (best < 0 || remaining[c] > remaining[best])) best = c;
+            }
+            if (best < 0) break;
+            opening[length++] = best;
+            for (int i = start[best]; i < start[best + 1]; i++) {
+                int l = covering[i];
+                if (struck[l]) continue;
+                struck[l] = true;
+                forEachCell(layouts[l], lengths, width, cell -> remaining[cell]--);
+            }
+        }
+
+        ByteBuffer data = ByteBuffer.allocate((HEADER_INTS + length) * 4);
+        data.putInt(MAGIC).putInt(VERSION).putInt(GameJournal.fingerprint(variant)).putInt(samples)
+                .putInt(variant.width()).putInt(variant.height()).putInt(length);
+        for (int i = 0; i < length; i++) data.putInt(opening[i]);
+        try {
+            return new OpeningBook(data.flip());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface LayoutCell {
+        void accept(int layout, int cell);
+    }
+
+    private static void forEachCell(int[][] layouts, int[] lengths, int width, LayoutCell action) {
+        for (int l = 0; l < layouts.length; l++) {
+            int layout = l;
+            forEachCell(layouts[l], lengths, width, cell -> action.accept(layout, cell));
+        }
+    }
+
+    private static void forEachCell(int[] layout, int[] lengths, int width, IntConsumer action) {
+        for (int s = 0; s < layout.length; s++) {
+            int step = PlacementGenerator.isHorizontal(layout[s]) ? 1 : width;
+            for (int i = 0, cell = PlacementGenerator.startCell(layout[s]); i < lengths[s]; i++, cell += step) {
+                action.accept(cell);
+            }
+        }
+    }
+
+    private static long fleetCells(GameVariant variant) {
+        long n = 0;
+        for (var def : variant.fleet()) n += def.length();
+        return n;
+    }
+}
@@ -0,0 +1,66 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.CellMask;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plays the {@link OpeningBook} while hunting and hands over to another
+ * strategy to finish off ships. Whenever no hit is left unaccounted for, the
+ * next shot is the next book move it hasn't fired yet, a table lookup; once the
+ * opening runs out the inner strategy does the hunting as well. Every result is
+ * also passed on, so the inner strategy always knows the whole board.
+ * <p>
+ * The book is picked up at {@link #reset()} if it has finished loading by then;
+ * until it has, the inner strategy plays alone.
+ */
+public class OpeningBookStrategy implements ShotStrategy {
+    private final ShotStrategy inner;
+    private final CompletableFuture<OpeningBook> future;
+    private final CellMask fired;
+    private OpeningBook book;
+    private int opening;
+    // Hit cells not yet part of a sunk ship
+    private int openHits;
+
+    public OpeningBookStrategy(GameVariant variant, ShotStrategy inner) {
+        this(variant, inner, OpeningBook.forVariant(variant));
+    }
+
+    public OpeningBookStrategy(GameVariant variant, ShotStrategy inner, CompletableFuture<OpeningBook> book) {
+        this.inner = inner;
+        this.future = book;
+        this.fired = new CellMask(variant.cells());
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        inner.reset();
+        fired.clearAll();
+        opening = 0;
+        openHits = 0;
+        if (book == null && future.isDone() && !future.isCompletedExceptionally()) book = future.join();
+    }
+
+    @Override
+    public int nextShot() {
+        if (book != null && openHits == 0) {
+            while (opening < book.length()) {
+                int cell = book.shot(opening++);
+                if (!fired.get(cell)) return cell;
+            }
+        }
+        return inner.nextShot();
+    }
+
+    @Override
+    public void onShotResult(int cell, boolean hit, Ship sunk) {
+        fired.set(cell);
+        if (hit) openHits++;
+        if (sunk != null) openHits = Math.max(0, openHits - sunk.getCellCount());
+        inner.onShotResult(cell, hit, sunk);
+    }
+}
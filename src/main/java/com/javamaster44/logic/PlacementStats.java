@@ -0,0 +1,128 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Where the player likes to put their ships: for every cell, how many of their
+ * hand-placed fleets had a horizontal ship on it and how many a vertical one.
+ * {@link #record} adds one finished setup in time proportional to the fleet's
+ * cells; every query is a lookup or two. Counts live in sparse maps, so a
+ * profile stores only the cells the player has actually used, whatever the
+ * board size.
+ * <p>
+ * Saved with the profile by {@link SaveManager}. Stats belong to one
+ * {@link GameVariant}; {@link #matches} tells whether they apply to the board in
+ * play. Not thread safe: the game thread records and queries, and saves take a
+ * {@link #PlacementStats(PlacementStats) copy}.
+ */
+public final class PlacementStats {
+    private final int fingerprint;
+    private int games;
+    // (cell << 1 | horizontal) -> fleets with a ship on that cell in that orientation
+    private final IntIntMap coverage;
+
+    public PlacementStats(GameVariant variant) {
+        this(GameJournal.fingerprint(variant), 0, new IntIntMap());
+    }
+
+    public PlacementStats(PlacementStats other) {
+        this(other.fingerprint, other.games, new IntIntMap(other.coverage));
+    }
+
+    private PlacementStats(int fingerprint, int games, IntIntMap coverage) {
+        this.fingerprint = fingerprint;
+        this.games = games;
+        this.coverage = coverage;
+    }
+
+    public boolean matches(GameVariant variant) {
+        return fingerprint == GameJournal.fingerprint(variant);
+    }
+
+    /** Adds the fleet on {@code board}, as the player left it at the end of setup. */
+    public void record(Board board) {
+        int width = board.getVariant().width();
+        for (Ship ship : board.getShips()) {
+            int[] cells = ship.getCells();
+            int n = ship.getCellCount();
+            // Single-cell ships count as horizontal; a step of one row is vertical, even on a one-column board
+            int horizontal = n < 2 || cells[1] - cells[0] != width ? 1 : 0;
+            for (int i = 0; i < n; i++) coverage.add(cells[i] << 1 | horizontal, 1);
+        }
+        games++;
+    }
+
+    /** Setups recorded so far. */
+    public int games() { return games; }
+
+    public int horizontal(int cell) {
+        return coverage.getOrDefault(cell << 1 | 1, 0);
+    }
+
+    public int vertical(int cell) {
+        return coverage.getOrDefault(cell << 1, 0);
+    }
+
+    /** Share of recorded setups with a ship on {@code cell}, 0 before the first. */
+    public float heat(int cell) {
+        return games == 0 ? 0 : (float) (horizontal(cell) + vertical(cell)) / games;
+    }
+
+    /**
+     * Cells with a ship in at least {@code minHeat} of recorded setups, hottest
+     * first. Costs a pass over the cells the player has used, so call it once per
+     * game rather than per shot.
+     */
+    public int[] hotCells(float minHeat) {
+        if (games == 0) return new int[0];
+        // Orientations share a cell: sum them into a second map first
+        IntIntMap perCell = new IntIntMap();
+        coverage.forEach((key, count) -> perCell.add(key >>> 1, count));
+        long[] keys = new long[perCell.size()];
+        int[] n = {0};
+        int min = (int) Math.ceil(minHeat * games);
+        perCell.forEach((cell, count) -> {
+            // Count descending, then cell ascending for a stable order
+            if (count >= min) keys[n[0]++] = (long) (Integer.MAX_VALUE - count) << 32 | cell;
+        });
+        Arrays.sort(keys, 0, n[0]);
+        int[] cells = new int[n[0]];
+        for (int i = 0; i < cells.length; i++) cells[i] = (int) keys[i];
+        return cells;
+    }
+
+    // Format: varint fingerprint, games, entries, then (key, count) per entry
+    void write(OutputStream out) throws IOException {
+        Varint.write(out, fingerprint);
+        Varint.write(out, games);
+        Varint.write(out, coverage.size());
+        IOException[] failed = {null};
+        coverage.forEach((key, count) -> {
+            try {
+                Varint.write(out, key);
+                Varint.write(out, count);
+            } catch (IOException e) {
+                failed[0] = e;
+            }
+        });
+        if (failed[0] != null) throw failed[0];
+    }
+
+    static PlacementStats read(InputStream in) throws IOException {
+        int fingerprint = Varint.read(in);
+        int games = Varint.read(in);
+        IntIntMap coverage = new IntIntMap();
+        for (int i = Varint.read(in); i > 0; i--) {
+            int key = Varint.read(in);
+            coverage.put(key, Varint.read(in));
+        }
+        return new PlacementStats(fingerprint, games, coverage);
+    }
+}
@@ -0,0 +1,19 @@
+package com.javamaster44.logic;
+
+/**
+ * One kind of powerup: its id, its shop price and what it does. Implementations
+ * are discovered with {@link java.util.ServiceLoader}, so a new powerup is a new
+ * {@link PowerupType} constant plus a class listed in
+ * {@code META-INF/services/com.javamaster44.logic.Powerup}; see {@link PowerupRegistry}.
+ */
+public interface Powerup {
+    PowerupType type();
+
+    int cost();
+
+    /**
+     * Fires at the CPU board around the chosen cell. Every shot goes through
+     * {@code target}, which resolves them together once this returns.
+     */
+    void fire(PowerupTarget target, int row, int col);
+}
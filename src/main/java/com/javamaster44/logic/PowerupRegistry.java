@@ -0,0 +1,45 @@
+package com.javamaster44.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Every {@link Powerup} on the class path, loaded once through {@link ServiceLoader}
+ * and looked up by type with an array index. A type nobody provides simply isn't
+ * sold; if two providers claim a type, the first one found wins.
+ */
+public final class PowerupRegistry {
+    private static final Powerup[] BY_TYPE = new Powerup[PowerupType.values().length];
+    private static final List<Powerup> ALL;
+
+    static {
+        for (Powerup p : ServiceLoader.load(Powerup.class, Powerup.class.getClassLoader())) {
+            int i = p.type().ordinal();
+            if (BY_TYPE[i] == null) {
+                BY_TYPE[i] = p;
+            } else {
+                System.err.println("Ignoring " + p.getClass().getName() + ": " + p.type() + " is already provided by "
+                        + BY_TYPE[i].getClass().getName());
+            }
+        }
+        List<Powerup> all = new ArrayList<>();
+        for (Powerup p : BY_TYPE) {
+            if (p != null) all.add(p);
+        }
+        ALL = Collections.unmodifiableList(all);
+    }
+
+    private PowerupRegistry() {}
+
+    /** The implementation of this type, or null if none is installed. */
+    public static Powerup get(PowerupType type) {
+        return BY_TYPE[type.ordinal()];
+    }
+
+    /** Installed powerups in {@link PowerupType} order, e.g. for the shop. */
+    public static List<Powerup> all() {
+        return ALL;
+    }
+}
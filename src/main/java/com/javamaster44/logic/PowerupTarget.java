@@ -0,0 +1,31 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/** What a {@link Powerup} effect can see and do while it fires. */
+public interface PowerupTarget {
+    GameVariant variant();
+
+    /** Footprint helper for this variant; feed its cells to {@link #shots()}. */
+    AreaOfEffect area();
+
+    RandomGenerator random();
+
+    /** The CPU board, for effects that aim (read it only; shoot through {@link #shoot}). */
+    Board board();
+
+    /** Fires at one packed cell; cells already shot are ignored. */
+    void shoot(int cell);
+
+    /** {@link #shoot} as a consumer, for {@link AreaOfEffect}. */
+    IntConsumer shots();
+
+    /** The CPU loses its next turn. */
+    void skipCpuTurn();
+
+    void alert(String title, String content);
+}
@@ -0,0 +1,38 @@
+package com.javamaster44.logic;
+
+/**
+ * Every powerup sold in the shop, by the name used in the inventory and UI.
+ * Ordinals are written to the profile file, so new powerups go at the end.
+ */
+public enum PowerupType {
+    NUKE("Nuke"),
+    CONFUSION_RAY("Confusion Ray"),
+    SHIP_FINDER("Ship Finder"),
+    TORPEDO("Torpedo"),
+    FRAG_BOMB("Frag Bomb"),
+    CROSS_FIRE("Cross Fire"),
+    BOMB("Bomb");
+
+    private static final PowerupType[] VALUES = values();
+
+    private final String displayName;
+
+    PowerupType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String displayName() { return displayName; }
+
+    /** The powerup with this inventory name, or null. */
+    public static PowerupType fromName(String name) {
+        for (PowerupType p : VALUES) {
+            if (p.displayName.equals(name)) return p;
+        }
+        return null;
+    }
+
+    /** The powerup with this ordinal, or null if it is out of range. */
+    public static PowerupType fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
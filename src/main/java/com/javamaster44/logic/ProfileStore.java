@@ -0,0 +1,219 @@
+package com.javamaster44.logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Many player profiles in one directory: {@code <id>.dat} per profile in the
+ * {@link SaveManager} format, plus {@code index.bin}, an append-only list of the
+ * ids in creation order, so listing never touches the profile files.
+ * <p>
+ * Profiles are read on first use and kept in an LRU cache of the most recently
+ * used ones. Saves update the cache at once and go through SaveManager's
+ * background writer, which batches everything queued together. A profile stays
+ * cached while its write is pending, so a cache miss can always trust the file;
+ * the cache is trimmed back to its size after every save and every finished
+ * write. A missing or damaged index is rebuilt from the directory. All methods
+ * are thread-safe.
+ */
+public class ProfileStore {
+    private static final int MAX_ID_LENGTH = 64;
+    private static final int INDEX_MAGIC = 0x42494458; // "BIDX"
+    private static final String INDEX_FILE = "index.bin";
+    private static final String EXTENSION = ".dat";
+
+    private final Path dir;
+    private final List<String> ids = new ArrayList<>();
+    private final Set<String> known = new HashSet<>();
+    // Access order, so iteration starts at the least recently used profile
+    private final Map<String, SaveManager.SaveData> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final int cacheSize;
+    private final FileChannel index;
+
+    public ProfileStore(Path dir, int cacheSize) throws IOException {
+        this.dir = dir;
+        this.cacheSize = cacheSize;
+        Files.createDirectories(dir);
+        Path indexFile = dir.resolve(INDEX_FILE);
+        boolean fresh = !Files.exists(indexFile);
+        index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (fresh || !readIndex()) rebuildIndex();
+    }
+
+    /** 1-64 ASCII letters, digits, '-' or '_', so an id is always a safe file name. */
+    public static boolean isValidId(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_ID_LENGTH) return false;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    public synchronized boolean exists(String id) {
+        return known.contains(id);
+    }
+
+    /** Up to {@code limit} profile ids in creation order, starting at {@code offset}. */
+    public synchronized List<String> list(int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), ids.size());
+        return new ArrayList<>(ids.subList(from, Math.min(ids.size(), from + Math.max(limit, 0))));
+    }
+
+    /**
+     * The profile with this id, read from disk on first use. An unknown id gives an
+     * empty profile that is created by its first save. The result is a copy.
+     */
+    public SaveManager.SaveData load(String id) {
+        checkId(id);
+        SaveManager.SaveData data;
+        synchronized (this) {
+            data = cache.get(id);
+            if (data == null && !known.contains(id)) return new SaveManager.SaveData();
+        }
+        if (data == null) {
+            // Decrypt outside the lock; two threads missing on the same id just both read it
+            data = SaveManager.load(file(id));
+            synchronized (this) {
+                // A save that landed while we were reading wins
+                SaveManager.SaveData newer = cache.get(id);
+                if (newer != null) {
+                    data = newer;
+                } else if (data.problem == null) {
+                    cache.put(id, data);
+                    trim();
+                }
+            }
+        }
+        return copy(data);
+    }
+
+    public void save(String id, Inventory inventory, int money, PlacementStats placements) {
+        checkId(id);
+        SaveManager.SaveData data = new SaveManager.SaveData();
+        data.money = money;
+        data.inventory = new Inventory(inventory);
+        data.placements = placements == null ? null : new PlacementStats(placements);
+        synchronized (this) {
+            cache.put(id, data);
+            if (known.add(id)) {
+                ids.add(id);
+                appendToIndex(id);
+            }
+            // Under the lock, so the entry is pinned before anything else can evict it
+            SaveManager.save(file(id), data.inventory, money, data.placements, this::trim);
+            trim();
+        }
+    }
+
+    // Drops least recently used profiles until the cache fits, skipping any whose newest state isn't on disk yet
+    private synchronized void trim() {
+        Iterator<Map.Entry<String, SaveManager.SaveData>> it = cache.entrySet().iterator();
+        while (cache.size() > cacheSize && it.hasNext()) {
+            if (!SaveManager.isPending(file(it.next().getKey()))) it.remove();
+        }
+    }
+
+    /** Profiles held in memory right now. */
+    synchronized int cachedCount() {
+        return cache.size();
+    }
+
+    /** Blocks until every save so far is on disk. */
+    public void flush() {
+        SaveManager.flush();
+    }
+
+    /** Where the profile's own files live, e.g. {@code <id>.dat}; other per-profile files use the same stem. */
+    public Path file(String id) {
+        return dir.resolve(id + EXTENSION);
+    }
+
+    private static void checkId(String id) {
+        if (!isValidId(id)) {
+            throw new IllegalArgumentException("Profile ids are 1-64 letters, digits, '-' or '_': " + id);
+        }
+    }
+
+    private static SaveManager.SaveData copy(SaveManager.SaveData data) {
+        SaveManager.SaveData copy = new SaveManager.SaveData();
+        copy.money = data.money;
+        copy.inventory = new Inventory(data.inventory);
+        copy.placements = data.placements == null ? null : new PlacementStats(data.placements);
+        copy.problem = data.problem;
+        return copy;
+    }
+
+    // Index: MAGIC, then (u8 length, ASCII id) per profile. Returns false if it can't be trusted.
+    private boolean readIndex() throws IOException {
+        ByteBuffer in = ByteBuffer.allocate((int) index.size());
+        index.read(in, 0);
+        in.flip();
+        if (in.remaining() < 4 || in.getInt() != INDEX_MAGIC) return false;
+        byte[] name = new byte[MAX_ID_LENGTH];
+        long good = in.position();
+        while (in.hasRemaining()) {
+            int length = in.get() & 0xFF;
+            if (length == 0 || length > name.length || in.remaining() < length) break;
+            in.get(name, 0, length);
+            String id = new String(name, 0, length, StandardCharsets.US_ASCII);
+            if (!isValidId(id)) return false;
+            if (known.add(id)) ids.add(id);
+            good = in.position();
+        }
+        // Drop a half-written last entry
+        index.truncate(good);
+        index.position(good);
+        return true;
+    }
+
+    private void rebuildIndex() throws IOException {
+        ids.clear();
+        known.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                String id = name.substring(0, name.length() - EXTENSION.length());
+                if (isValidId(id) && known.add(id)) ids.add(id);
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(4 + ids.size() * (MAX_ID_LENGTH + 1)).putInt(INDEX_MAGIC);
+        for (String id : ids) {
+            out.put((byte) id.length()).put(id.getBytes(StandardCharsets.US_ASCII));
+        }
+        out.flip();
+        index.truncate(0);
+        index.position(0);
+        while (out.hasRemaining()) index.write(out);
+        index.force(true);
+    }
+
+    private void appendToIndex(String id) {
+        ByteBuffer out = ByteBuffer.allocate(1 + id.length()).put((byte) id.length()).put(id.getBytes(StandardCharsets.US_ASCII));
+        out.flip();
+        try {
+            while (out.hasRemaining()) index.write(out);
+        } catch (IOException e) {
+            // The profile file still gets written; the next rebuild picks it up
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+import com.javamaster44.model.ShipDef;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A recorded game: both starting fleets, then every turn as the cells it changed.
+ * Each delta packs {@code cell << 5 | board << 4 | oldStatus << 2 | newStatus}
+ * (board 1 = CPU), so a turn can be applied or undone without recomputing
+ * anything; see {@link ReplayPlayer}. Turns also note who fired where and the
+ * player's balance afterwards, for reviewing the economy.
+ */
+public final class Replay {
+    public static final int KIND_PLAYER = 0, KIND_CPU = 1, KIND_RESUMED = 2;
+    // Kinds from here on are powerups: KIND_POWERUP + PowerupType ordinal
+    public static final int KIND_POWERUP = 16;
+
+    private static final int MAGIC = 0x4252504C; // "BRPL"
+    private static final int VERSION = 1;
+
+    final GameVariant variant;
+    // Placement per fleet entry (PlacementGenerator encoding), -1 if not placed
+    final int[] playerLayout, cpuLayout;
+    final int startMoney;
+    final int[] deltas;
+    // Turn t covers deltas [turnEnd[t - 1], turnEnd[t])
+    final int[] turnEnd;
+    final byte[] turnKind;
+    final int[] turnCell;
+    final int[] moneyAfter;
+
+    Replay(GameVariant variant, int[] playerLayout, int[] cpuLayout, int startMoney,
+           int[] deltas, int[] turnEnd, byte[] turnKind, int[] turnCell, int[] moneyAfter) {
+        this.variant = variant;
+        this.playerLayout = playerLayout;
+        this.cpuLayout = cpuLayout;
+        this.startMoney = startMoney;
+        this.deltas = deltas;
+        this.turnEnd = turnEnd;
+        this.turnKind = turnKind;
+        this.turnCell = turnCell;
+        this.moneyAfter = moneyAfter;
+    }
+
+    public GameVariant getVariant() { return variant; }
+    public int turnCount() { return turnEnd.length; }
+
+    /** Balance once {@code turns} turns have been played. */
+    public int moneyAt(int turns) {
+        return turns == 0 ? startMoney : moneyAfter[turns - 1];
+    }
+
+    /** Human-readable summary of turn {@code t} (0-based), e.g. "CPU fired at C5". */
+    public String describe(int t) {
+        int kind = turnKind[t];
+        int cell = turnCell[t];
+        String at = cell < 0 ? "" : " at " + GameVariant.rowLabel(cell / variant.width()) + (cell % variant.width());
+        if (kind == KIND_PLAYER) return "You fired" + at;
+        if (kind == KIND_CPU) return "CPU fired" + at;
+        if (kind == KIND_RESUMED) return "Resumed game";
+        PowerupType type = PowerupType.fromOrdinal(kind - KIND_POWERUP);
+        return (type == null ? "Powerup" : type.displayName()) + at;
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        Varint.write(out, variant.width());
+        Varint.write(out, variant.height());
+        Varint.write(out, variant.fleet().size());
+        for (ShipDef def : variant.fleet()) {
+            out.writeUTF(def.name());
+            Varint.write(out, def.length());
+            Varint.write(out, def.reward());
+        }
+        for (int i = 0; i < playerLayout.length; i++) Varint.write(out, playerLayout[i] + 1);
+        for (int i = 0; i < cpuLayout.length; i++) Varint.write(out, cpuLayout[i] + 1);
+        Varint.write(out, Varint.zigzag(startMoney));
+        Varint.write(out, turnEnd.length);
+        int prevEnd = 0, prevMoney = startMoney;
+        for (int t = 0; t < turnEnd.length; t++) {
+            out.writeByte(turnKind[t]);
+            Varint.write(out, turnCell[t] + 1);
+            Varint.write(out, Varint.zigzag(moneyAfter[t] - prevMoney));
+            Varint.write(out, turnEnd[t] - prevEnd);
+            for (int i = prevEnd; i < turnEnd[t]; i++) Varint.write(out, deltas[i]);
+            prevEnd = turnEnd[t];
+            prevMoney = moneyAfter[t];
+        }
+        out.flush();
+    }
+
+    /** Reads a replay back; throws IOException if the data is truncated or doesn't describe a valid game. */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) throw new IOException("Not a replay file");
+        int version = in.readByte();
+        if (version != VERSION) throw new IOException("Unsupported replay version " + version);
+        int width = Varint.read(in), height = Varint.read(in);
+        int ships = Varint.read(in);
+        if (ships < 1 || ships > Short.MAX_VALUE) throw new IOException("Bad replay fleet size " + ships);
+        List<ShipDef> fleet = new ArrayList<>();
+        for (int i = ships; i > 0; i--) {
+            fleet.add(new ShipDef(in.readUTF(), Varint.read(in), Varint.read(in)));
+        }
+        GameVariant variant;
+        try {
+            variant = new GameVariant(width, height, fleet);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad replay board: " + e.getMessage());
+        }
+        int cells = variant.cells();
+        int[] playerLayout = readLayout(in, ships, cells), cpuLayout = readLayout(in, ships, cells);
+        int startMoney = Varint.unzigzag(Varint.read(in));
+        int turns = Varint.read(in);
+        if (turns < 0) throw new IOException("Bad replay turn count " + turns);
+        // Grown as turns are read rather than sized from the header, so a bad count runs into EOF, not OOM
+        int capacity = Math.min(turns, 64);
+        int[] turnEnd = new int[capacity], turnCell = new int[capacity], moneyAfter = new int[capacity];
+        byte[] turnKind = new byte[capacity];
+        int[] deltas = new int[Math.max(16, capacity * 2)];
+        int end = 0, money = startMoney;
+        for (int t = 0; t < turns; t++) {
+            if (t == turnEnd.length) {
+                int n = Math.min(turns, t * 2);
+                turnEnd = Arrays.copyOf(turnEnd, n);
+                turnCell = Arrays.copyOf(turnCell, n);
+                moneyAfter = Arrays.copyOf(moneyAfter, n);
+                turnKind = Arrays.copyOf(turnKind, n);
+            }
+            turnKind[t] = in.readByte();
+            turnCell[t] = Varint.read(in) - 1;
+            if (turnCell[t] < -1 || turnCell[t] >= cells) throw new IOException("Replay turn " + t + " fired off the board");
+            money += Varint.unzigzag(Varint.read(in));
+            moneyAfter[t] = money;
+            int count = Varint.read(in);
+            // Each cell of each board changes at most once in a game
+            if (count < 0 || count > 2L * cells - end) throw new IOException("Bad replay delta count " + count + " in turn " + t);
+            if (end + count > deltas.length) deltas = Arrays.copyOf(deltas, Math.max(end + count, deltas.length * 2));
+            for (int i = 0; i < count; i++) {
+                int delta = Varint.read(in);
+                if (delta < 0 || delta >>> 5 >= cells) throw new IOException("Replay delta off the board in turn " + t);
+                deltas[end++] = delta;
+            }
+            turnEnd[t] = end;
+        }
+        return new Replay(variant, playerLayout, cpuLayout, startMoney, Arrays.copyOf(deltas, end),
+                turnEnd, turnKind, turnCell, moneyAfter);
+    }
+
+    // One placement per fleet entry, -1 for an unplaced ship
+    private static int[] readLayout(DataInputStream in, int ships, int cells) throws IOException {
+        int[] layout = new int[ships];
+        for (int i = 0; i < ships; i++) {
+            layout[i] = Varint.read(in) - 1;
+            if (layout[i] < -1 || layout[i] >= 0 && PlacementGenerator.startCell(layout[i]) >= cells) {
+                throw new IOException("Replay ship placed off the board");
+            }
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,83 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+import com.javamaster44.model.Ship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Steps a {@link Replay} forwards and backwards on its own pair of boards. Moving
+ * by one turn applies (or undoes) only that turn's deltas, so scrubbing costs
+ * the cells changed in between, never a rebuild. Board listeners see every
+ * change as usual, so a view attached to {@link #getPlayerBoard()} just follows.
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+    private final Board playerBoard;
+    private final Board cpuBoard;
+    private int position;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        GameVariant variant = replay.variant;
+        this.playerBoard = new Board(variant, new SplittableRandom());
+        this.cpuBoard = new Board(variant, new SplittableRandom());
+        place(playerBoard, replay.playerLayout);
+        place(cpuBoard, replay.cpuLayout);
+    }
+
+    public Replay getReplay() { return replay; }
+    public Board getPlayerBoard() { return playerBoard; }
+    public Board getCpuBoard() { return cpuBoard; }
+
+    /** Number of turns currently applied, 0..turnCount. */
+    public int getPosition() { return position; }
+
+    public void seek(int turns) {
+        int target = Math.max(0, Math.min(turns, replay.turnCount()));
+        while (position < target) {
+            int from = position == 0 ? 0 : replay.turnEnd[position - 1];
+            for (int i = from; i < replay.turnEnd[position]; i++) apply(replay.deltas[i], true);
+            position++;
+        }
+        while (position > target) {
+            position--;
+            int from = position == 0 ? 0 : replay.turnEnd[position - 1];
+            for (int i = replay.turnEnd[position] - 1; i >= from; i--) apply(replay.deltas[i], false);
+        }
+    }
+
+    private void apply(int delta, boolean forward) {
+        Board board = (delta & 16) != 0 ? cpuBoard : playerBoard;
+        int cell = delta >>> 5;
+        int oldStatus = delta >>> 2 & 3, newStatus = delta & 3;
+        board.setStatus(cell, forward ? newStatus : oldStatus);
+        if (newStatus == 2) {
+            Ship s = board.getShipAt(cell);
+            if (s != null) {
+                if (forward) {
+                    s.hit();
+                } else {
+                    boolean wasSunk = s.isSunk();
+                    s.unhit();
+                    // Views draw a sunk ship's every cell, so all of them need redrawing now it's afloat again
+                    if (wasSunk) {
+                        for (int i = 0; i < s.getCellCount(); i++) board.touch(s.getCells()[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void place(Board board, int[] layout) {
+        GameVariant variant = board.getVariant();
+        for (int i = 0; i < layout.length; i++) {
+            if (layout[i] < 0) continue;
+            int start = PlacementGenerator.startCell(layout[i]);
+            board.placeShip(variant.fleet().get(i), start / variant.width(), start % variant.width(),
+                    PlacementGenerator.isHorizontal(layout[i]));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the game an engine is playing as a {@link Replay}: the fleets when play
+ * starts, then one packed delta per cell each shot changes, grouped into turns.
+ * Recording is a few array stores per shot; {@link #toReplay()} copies out the
+ * game so far and can be called at any time.
+ */
+public class ReplayRecorder {
+    private GameVariant variant;
+    private int[] playerLayout, cpuLayout;
+    private int startMoney;
+    private int[] deltas = new int[256];
+    private int deltaCount;
+    private int[] turnEnd = new int[64], turnCell = new int[64], moneyAfter = new int[64];
+    private byte[] turnKind = new byte[64];
+    private int turnCount;
+
+    /** Starts a new recording from the engine's current position. */
+    void start(GameEngine engine) {
+        variant = engine.getVariant();
+        playerLayout = layout(engine.getPlayerBoard());
+        cpuLayout = layout(engine.getCpuBoard());
+        startMoney = engine.getPlayerMoney();
+        deltaCount = 0;
+        turnCount = 0;
+
+        // Picking up mid-game (e.g. after a resume): the shots so far become one opening turn
+        recordExisting(engine.getPlayerBoard(), false);
+        recordExisting(engine.getCpuBoard(), true);
+        if (deltaCount > 0) endTurn(Replay.KIND_RESUMED, -1, startMoney);
+    }
+
+    boolean isRecording() {
+        return variant != null;
+    }
+
+    void delta(boolean cpuBoard, int cell, int oldStatus, int newStatus) {
+        if (variant == null) return;
+        if (deltaCount == deltas.length) deltas = Arrays.copyOf(deltas, deltaCount * 2);
+        deltas[deltaCount++] = cell << 5 | (cpuBoard ? 1 : 0) << 4 | oldStatus << 2 | newStatus;
+    }
+
+    void endTurn(int kind, int cell, int money) {
+        if (variant == null) return;
+        if (turnCount == turnEnd.length) {
+            int n = turnCount * 2;
+            turnEnd = Arrays.copyOf(turnEnd, n);
+            turnCell = Arrays.copyOf(turnCell, n);
+            moneyAfter = Arrays.copyOf(moneyAfter, n);
+            turnKind = Arrays.copyOf(turnKind, n);
+        }
+        turnEnd[turnCount] = deltaCount;
+        turnKind[turnCount] = (byte) kind;
+        turnCell[turnCount] = cell;
+        moneyAfter[turnCount] = money;
+        turnCount++;
+    }
+
+    /** The game recorded so far, or null if nothing has been recorded yet. */
+    public Replay toReplay() {
+        if (variant == null) return null;
+        return new Replay(variant, playerLayout.clone(), cpuLayout.clone(), startMoney,
+                Arrays.copyOf(deltas, turnCount == 0 ? 0 : turnEnd[turnCount - 1]),
+                Arrays.copyOf(turnEnd, turnCount), Arrays.copyOf(turnKind, turnCount),
+                Arrays.copyOf(turnCell, turnCount), Arrays.copyOf(moneyAfter, turnCount));
+    }
+
+    // Only the fired cells of touched pages, so a fresh game costs nothing whatever the board size
+    private void recordExisting(Board board, boolean cpuBoard) {
+        board.forEachShot(cell -> {
+            if (board.getStatus(cell) == 1) delta(cpuBoard, cell, 0, 1);
+            else delta(cpuBoard, cell, 3, 2);
+        });
+    }
+
+    private int[] layout(Board board) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < variant.fleet().size(); i++) index.put(variant.fleet().get(i).name(), i);
+        int[] layout = new int[variant.fleet().size()];
+        Arrays.fill(layout, -1);
+        for (Ship s : board.getShips()) {
+            int[] cells = s.getCells();
+            boolean horizontal = s.getCellCount() == 1 || (cells[1] == cells[0] + 1 && variant.width() > 1);
+            layout[index.get(s.getName())] = cells[0] << 1 | (horizontal ? 1 : 0);
+        }
+        return layout;
+    }
+}
@@ -1,75 +1,336 @@
 package com.javamaster44.logic;
 
+import com.javamaster44.metrics.Metrics;
+import com.javamaster44.metrics.SaveEvent;
+import com.javamaster44.metrics.SaveWriteEvent;
+
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Encrypted profile storage. {@link #save} only snapshots the data and returns;
+ * a single background writer persists the newest snapshot of each file, so a
+ * burst of saves (a sink, a purchase, a powerup) becomes one write, and saves to
+ * many files queued together go out as one batch. Each write goes to a temp
+ * file that is atomically renamed over the profile (by default {@code user.dat};
+ * see {@link ProfileStore} for many profiles), so a crash mid-write leaves the
+ * previous profile intact. {@link #flush} blocks until everything
+ * requested so far is on disk and also runs at JVM shutdown.
+ * <p>
+ * File format (version 3): {@code "BSAV", version u8, 12-byte nonce} in the clear,
+ * then AES-GCM over {@code zigzag varint money, varint count, (varint powerup
+ * ordinal, varint amount) * count, u8 has placement stats, [PlacementStats]}.
+ * The header is authenticated too, so any tampering or truncation fails the tag
+ * check. Version 2 is the same without the placement stats. Version 1 profiles
+ * (Base64 AES/ECB text) are still read and rewritten in the new format.
+ */
 public class SaveManager {
     private static final String SAVE_FILE = "user.dat";
+    private static final Path DEFAULT_FILE = Path.of(SAVE_FILE);
     private static final String KEY = "ThisIsASecretKey"; // 16 chars for AES-128
     private static final String ALGORITHM = "AES";
+    private static final SecretKeySpec KEY_SPEC = new SecretKeySpec(KEY.getBytes(), ALGORITHM);
+
+    private static final byte[] MAGIC = {'B', 'S', 'A', 'V'};
+    private static final int VERSION = 3;
+    private static final int FIRST_BINARY_VERSION = 2;
+    private static final int NONCE_BYTES = 12;
+    private static final int HEADER_BYTES = MAGIC.length + 1 + NONCE_BYTES;
+    private static final int TAG_BITS = 128;
+    private static final String GCM = "AES/GCM/NoPadding";
 
-    public static void save(Map<String, Integer> inventory, int money) {
+    // Newest snapshot per file not yet on disk (kept until its write completes), and whether a drain is already queued
+    private static final Map<Path, Pending> pending = new ConcurrentHashMap<>();
+    private static final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private record Pending(SaveData data, Runnable written) {}
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "save-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    // Only touched from the writer thread
+    private static Cipher writerCipher;
+    private static final SecureRandom nonces = new SecureRandom();
+    private static final ThreadLocal<Cipher> readerCipher = ThreadLocal.withInitial(() -> {
         try {
-            StringBuilder sb = new StringBuilder();
-            sb.append("MONEY=").append(money).append("\n");
-            for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
-                sb.append(entry.getKey()).append("=").append(entry.getValue()).append("\n");
-            }
-            String encrypted = encrypt(sb.toString());
-            Files.writeString(new File(SAVE_FILE).toPath(), encrypted);
+            return Cipher.getInstance(GCM);
         } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SaveManager::flush, "save-flush"));
+    }
+
+    public static void save(Inventory inventory, int money, PlacementStats placements) {
+        save(DEFAULT_FILE, inventory, money, placements);
+    }
+
+    /** Queues a write of the profile; {@code placements} may be null if the player has none yet. */
+    public static void save(Path file, Inventory inventory, int money, PlacementStats placements) {
+        save(file, inventory, money, placements, null);
+    }
+
+    /**
+     * As above, then runs {@code written} on the writer thread once the write is
+     * done (or has failed). If a newer save of the same file replaces this one
+     * before it is written, only the newer one's callback runs.
+     */
+    static void save(Path file, Inventory inventory, int money, PlacementStats placements, Runnable written) {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        SaveData snapshot = new SaveData();
+        snapshot.money = money;
+        snapshot.inventory = new Inventory(inventory);
+        snapshot.placements = placements == null ? null : new PlacementStats(placements);
+        boolean coalesced = pending.put(file.toAbsolutePath(), new Pending(snapshot, written)) != null;
+        if (coalesced) Metrics.SAVES_COALESCED.increment();
+        // Only one drain is queued at a time; saves arriving before it runs join its batch
+        if (scheduled.compareAndSet(false, true)) {
+            writer.execute(SaveManager::writePending);
+        }
+        if (event.shouldCommit()) {
+            event.file = file.getFileName().toString();
+            event.money = money;
+            event.coalesced = coalesced;
+            event.commit();
+        }
+    }
+
+    /** Blocks until every save requested so far has been written. */
+    public static void flush() {
+        try {
+            writer.submit(() -> {}).get();
+        } catch (RejectedExecutionException e) {
+            // Writer already torn down: write whatever is left inline
+            writePending();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
             e.printStackTrace();
         }
     }
 
+    /** True while a save of {@code file} is queued or being written, so the file on disk may be stale. */
+    static boolean isPending(Path file) {
+        return pending.containsKey(file.toAbsolutePath());
+    }
+
+    private static void writePending() {
+        // Cleared first, so a save racing with this drain either lands in it or queues the next one
+        scheduled.set(false);
+        for (Map.Entry<Path, Pending> entry : pending.entrySet()) {
+            Path file = entry.getKey();
+            Pending data = entry.getValue();
+            long t0 = Metrics.start();
+            SaveWriteEvent event = new SaveWriteEvent();
+            event.begin();
+            try {
+                byte[] bytes = encode(data.data());
+                event.bytes = bytes.length;
+                writeAtomically(file, bytes);
+                event.success = true;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            // Only now, so isPending covers the write itself; a newer snapshot stays for the next drain
+            pending.remove(file, data);
+            if (data.written() != null) data.written().run();
+            Metrics.SAVE_WRITE.stop(t0);
+            if (event.shouldCommit()) {
+                event.file = file.getFileName().toString();
+                event.commit();
+            }
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(true);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static byte[] encode(SaveData data) throws Exception {
+        byte[] header = new byte[HEADER_BYTES];
+        System.arraycopy(MAGIC, 0, header, 0, MAGIC.length);
+        header[MAGIC.length] = VERSION;
+        byte[] nonce = new byte[NONCE_BYTES];
+        nonces.nextBytes(nonce);
+        System.arraycopy(nonce, 0, header, MAGIC.length + 1, NONCE_BYTES);
+
+        if (writerCipher == null) writerCipher = Cipher.getInstance(GCM);
+        // A fresh nonce every time: GCM must never reuse one under the same key
+        writerCipher.init(Cipher.ENCRYPT_MODE, KEY_SPEC, new GCMParameterSpec(TAG_BITS, nonce));
+        writerCipher.updateAAD(header);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        bytes.write(header);
+        try (OutputStream out = new CipherOutputStream(bytes, writerCipher)) {
+            Varint.write(out, Varint.zigzag(data.money));
+            int count = 0;
+            for (PowerupType type : PowerupType.values()) {
+                if (data.inventory.get(type) > 0) count++;
+            }
+            Varint.write(out, count);
+            for (PowerupType type : PowerupType.values()) {
+                if (data.inventory.get(type) <= 0) continue;
+                Varint.write(out, type.ordinal());
+                Varint.write(out, data.inventory.get(type));
+            }
+            out.write(data.placements == null ? 0 : 1);
+            if (data.placements != null) data.placements.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
     public static class SaveData {
         public int money = 0;
-        public Map<String, Integer> inventory = new HashMap<>();
+        public Inventory inventory = new Inventory();
+        // Null until the player finishes a setup by hand
+        public PlacementStats placements;
+        // Why the profile on disk could not be used, or null if it loaded fine (or didn't exist)
+        public String problem;
     }
 
     public static SaveData load() {
-        SaveData data = new SaveData();
-        File file = new File(SAVE_FILE);
-        if (!file.exists()) return data;
+        return load(DEFAULT_FILE);
+    }
 
+    public static SaveData load(Path file) {
+        long t0 = Metrics.start();
+        try {
+            return read(file);
+        } finally {
+            Metrics.LOAD.stop(t0);
+        }
+    }
+
+    private static SaveData read(Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return new SaveData();
+        } catch (IOException e) {
+            SaveData data = new SaveData();
+            data.problem = "Could not read " + file.getFileName() + ": " + e.getMessage();
+            return data;
+        }
         try {
-            String encrypted = Files.readString(file.toPath());
-            String decrypted = decrypt(encrypted);
-            String[] lines = decrypted.split("\n");
-            for (String line : lines) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split("=");
-                if (parts[0].equals("MONEY")) {
-                    data.money = Integer.parseInt(parts[1]);
-                } else {
-                    data.inventory.put(parts[0], Integer.parseInt(parts[1]));
-                }
+            if (bytes.length >= MAGIC.length && Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+                return decode(bytes);
             }
+            // Version 1 text profile: read it and store it again in the current format
+            SaveData data = decodeLegacy(new String(bytes, StandardCharsets.UTF_8));
+            save(file, data.inventory, data.money, null);
+            return data;
         } catch (Exception e) {
-            System.out.println("Save file corrupted or invalid.");
+            // Keep the unreadable file for inspection instead of overwriting it with the next save
+            SaveData data = new SaveData();
+            Path corrupt = file.resolveSibling(file.getFileName() + ".corrupt");
+            data.problem = "Your profile failed its integrity check (" + e.getMessage() + ") and was moved to "
+                    + corrupt.getFileName() + ". Starting with a fresh profile.";
+            try {
+                Files.move(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveFailed) {
+                moveFailed.printStackTrace();
+            }
+            System.err.println(data.problem);
+            return data;
+        }
+    }
+
+    private static SaveData decode(byte[] bytes) throws Exception {
+        if (bytes.length < HEADER_BYTES) throw new IOException("truncated header");
+        int version = bytes[MAGIC.length];
+        if (version < FIRST_BINARY_VERSION || version > VERSION) throw new IOException("unsupported version " + version);
+
+        Cipher cipher = readerCipher.get();
+        cipher.init(Cipher.DECRYPT_MODE, KEY_SPEC, new GCMParameterSpec(TAG_BITS, bytes, MAGIC.length + 1, NONCE_BYTES));
+        cipher.updateAAD(bytes, 0, HEADER_BYTES);
+
+        SaveData data = new SaveData();
+        try (InputStream in = new CipherInputStream(new ByteArrayInputStream(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES), cipher)) {
+            // GCM releases plaintext only after the tag checks out, so a bad file fails on the first read
+            data.money = Varint.unzigzag(Varint.read(in));
+            for (int i = Varint.read(in); i > 0; i--) {
+                PowerupType type = PowerupType.fromOrdinal(Varint.read(in));
+                int amount = Varint.read(in);
+                if (type != null) data.inventory.set(type, amount);
+            }
+            if (version >= 3) {
+                int hasPlacements = in.read();
+                if (hasPlacements < 0) throw new EOFException("Truncated profile");
+                if (hasPlacements != 0) data.placements = PlacementStats.read(in);
+            }
         }
         return data;
     }
 
-    private static String encrypt(String value) throws Exception {
-        SecretKeySpec keySpec = new SecretKeySpec(KEY.getBytes(), ALGORITHM);
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-        byte[] encryptedValue = cipher.doFinal(value.getBytes());
-        return Base64.getEncoder().encodeToString(encryptedValue);
+    private static SaveData decodeLegacy(String encrypted) throws Exception {
+        SaveData data = new SaveData();
+        String decrypted = decrypt(encrypted.trim());
+        for (String line : decrypted.split("\n")) {
+            if (line.trim().isEmpty()) continue;
+            String[] parts = line.split("=");
+            if (parts[0].equals("MONEY")) {
+                data.money = Integer.parseInt(parts[1]);
+            } else {
+                PowerupType type = PowerupType.fromName(parts[0]);
+                if (type != null) data.inventory.set(type, Integer.parseInt(parts[1]));
+            }
+        }
+        return data;
     }
 
+    // Version 1 profiles: AES/ECB over "KEY=value" lines, Base64 encoded
     private static String decrypt(String encrypted) throws Exception {
-        SecretKeySpec keySpec = new SecretKeySpec(KEY.getBytes(), ALGORITHM);
         Cipher cipher = Cipher.getInstance(ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, keySpec);
+        cipher.init(Cipher.DECRYPT_MODE, KEY_SPEC);
         byte[] decodedValue = Base64.getDecoder().decode(encrypted);
         byte[] decryptedVal = cipher.doFinal(decodedValue);
         return new String(decryptedVal);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Ship;
+
+/**
+ * Chooses where an AI fires next. Cells are packed board indices
+ * ({@code row * width + col}). Implementations keep their own view of the
+ * target board, built only from the results they are told about.
+ */
+public interface ShotStrategy {
+    /** Forgets everything and starts a fresh game. */
+    void reset();
+
+    /** Next cell to fire at, or -1 when every cell has been tried. */
+    int nextShot();
+
+    /**
+     * Reports the outcome of a shot at {@code cell}. {@code sunk} is the ship that
+     * went down with this shot, or null.
+     */
+    void onShotResult(int cell, boolean hit, Ship sunk);
+}
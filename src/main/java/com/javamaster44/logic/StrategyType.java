@@ -0,0 +1,27 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The available CPU targeting strategies. New ones go at the end: the match
+ * server protocol sends the ordinal.
+ */
+public enum StrategyType {
+    HUNT_TARGET,
+    DENSITY,
+    OPENING_BOOK;
+
+    public ShotStrategy create(RandomGenerator random) {
+        return create(GameVariant.STANDARD, random);
+    }
+
+    public ShotStrategy create(GameVariant variant, RandomGenerator random) {
+        return switch (this) {
+            case HUNT_TARGET -> new HuntTargetStrategy(variant, random);
+            case OPENING_BOOK -> new OpeningBookStrategy(variant, new HuntTargetStrategy(variant, random));
+            case DENSITY -> new DensityStrategy(variant, random);
+        };
+    }
+}
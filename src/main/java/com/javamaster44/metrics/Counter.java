@@ -0,0 +1,25 @@
+package com.javamaster44.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A striped event counter, also visible over JMX. */
+public final class Counter implements CounterMXBean {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() { return name; }
+
+    public void increment() {
+        if (Metrics.ENABLED) count.increment();
+    }
+
+    @Override
+    public long getCount() { return count.sum(); }
+
+    @Override
+    public void reset() { count.reset(); }
+}
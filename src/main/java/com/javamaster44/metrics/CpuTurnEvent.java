@@ -0,0 +1,27 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** The CPU choosing and firing its shot, or skipping its turn. */
+@Name("com.javamaster44.CpuTurn")
+@Label("CPU Turn")
+@Category({"Battleship", "Game"})
+@Description("The CPU choosing and firing its shot, or skipping its turn.")
+@StackTrace(false)
+public class CpuTurnEvent extends Event {
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Cell")
+    @Description("-1 if the turn was skipped or no cell was left")
+    public int cell;
+
+    @Label("Result")
+    @Description("miss, hit, sunk or skipped")
+    public String result;
+}
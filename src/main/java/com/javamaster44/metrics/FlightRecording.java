@@ -0,0 +1,59 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Starts a JFR recording with the bundled {@code battleship.jfc} settings when
+ * {@code -Dbattleship.jfr=<file>} is set, and writes it to that file on
+ * {@link #stop()} (or at JVM exit). The game events are ordinary JFR events, so
+ * any recording that enables {@code com.javamaster44.*} picks them up too.
+ */
+public final class FlightRecording {
+    private static final String SETTINGS = "battleship.jfc";
+    private static Recording recording;
+
+    private FlightRecording() {}
+
+    /** The bundled low-overhead settings. */
+    public static Configuration settings() throws IOException, ParseException {
+        try (InputStream in = FlightRecording.class.getResourceAsStream(SETTINGS)) {
+            if (in == null) throw new IOException(SETTINGS + " is missing from the classpath");
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+
+    public static synchronized void startIfRequested() {
+        String file = System.getProperty("battleship.jfr");
+        if (file == null || recording != null) return;
+        try {
+            Recording r = new Recording(settings());
+            r.setName("Battleship");
+            r.setToDisk(true);
+            r.setDumpOnExit(true);
+            r.setDestination(Path.of(file));
+            r.start();
+            recording = r;
+        } catch (IOException | ParseException | IllegalStateException e) {
+            System.err.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+
+    /** Stops the recording, writing it to its file. */
+    public static synchronized void stop() {
+        if (recording == null) return;
+        recording.stop();
+        recording.close();
+        recording = null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.javamaster44.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: every power of
+ * two is split into {@value #SUB} equal buckets, so any recorded time is
+ * known to within about 3% from 1ns to hours, in a fixed 16KB of counters.
+ * Recording is a bucket index computed from the leading-zero count plus one
+ * atomic increment, safe from any thread.
+ */
+public final class LatencyHistogram implements LatencyMXBean {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final String name;
+    // Not allocated at all while metrics are off
+    private final AtomicLongArray counts;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name, boolean enabled) {
+        this.name = name;
+        this.counts = new AtomicLongArray(enabled ? BUCKETS : 0);
+    }
+
+    public String name() { return name; }
+
+    /** Records the time since {@code start}, a value from {@link Metrics#start()}. */
+    public void stop(long start) {
+        if (!Metrics.ENABLED) return;
+        record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        if (!Metrics.ENABLED) return;
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(index(nanos));
+        total.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    static int index(long value) {
+        if (value < SUB) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        // value >>> shift lies in [SUB, 2 * SUB)
+        return (shift + 1) * SUB + (int) (value >>> shift) - SUB;
+    }
+
+    // Largest value that lands in the bucket
+    static long upperBound(int index) {
+        if (index < SUB) return index;
+        int shift = index / SUB - 1;
+        long sub = index % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /** Upper bound, in nanoseconds, of the value at quantile {@code q} (0..1). */
+    public long percentileNanos(double q) {
+        long n = total.sum();
+        if (n == 0 || counts.length() == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(n * q)), seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), maxNanos.get());
+        }
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getCount() { return total.sum(); }
+
+    @Override
+    public double getMeanMicros() {
+        long n = total.sum();
+        return n == 0 ? 0 : sumNanos.sum() / 1e3 / n;
+    }
+
+    @Override
+    public double getP50Micros() { return percentileNanos(0.50) / 1e3; }
+
+    @Override
+    public double getP99Micros() { return percentileNanos(0.99) / 1e3; }
+
+    @Override
+    public double getP999Micros() { return percentileNanos(0.999) / 1e3; }
+
+    @Override
+    public double getMaxMicros() { return maxNanos.get() / 1e3; }
+
+    @Override
+    public double getTotalMillis() { return sumNanos.sum() / 1e6; }
+
+    /** Starts over; concurrent records may land on either side of the reset. */
+    @Override
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        total.reset();
+        sumNanos.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,13 @@
+package com.javamaster44.metrics;
+
+/** JMX view of a {@link LatencyHistogram}; times are in microseconds unless named otherwise. */
+public interface LatencyMXBean {
+    long getCount();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    double getTotalMillis();
+    void reset();
+}
@@ -0,0 +1,161 @@
+package com.javamaster44.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Latency histograms and counters for the game loop, saves and the FX pulse.
+ * <p>
+ * Off unless {@code -Dbattleship.metrics=true}. {@link #ENABLED} is a static
+ * final, so with metrics off the JIT folds every {@link #start()} /
+ * {@link LatencyHistogram#stop} pair down to nothing and the histograms never
+ * allocate their buckets. When on, each metric is registered with the platform
+ * MBean server as {@code com.javamaster44:type=Latency|Counter,name=...}, and
+ * {@code -Dbattleship.metrics.dump=<file>} writes every metric there every
+ * {@code battleship.metrics.interval} seconds (default 10): JSON if the name
+ * ends in {@code .json}, a text table otherwise, or to stdout for {@code -}.
+ * <p>
+ * The turn timers nest: {@link #PLAYER_TURN} covers the whole click, including
+ * {@link #POWERUP}, {@link #CPU_TURN}, {@link #SAVE_REQUEST} and
+ * {@link #JOURNAL_COMMIT}, so comparing them shows which phase a slow turn spent
+ * its time in.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("battleship.metrics");
+
+    private static final List<LatencyHistogram> TIMERS = new ArrayList<>();
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+
+    public static final LatencyHistogram PLAYER_TURN = timer("playerTurn");
+    public static final LatencyHistogram POWERUP = timer("powerup");
+    public static final LatencyHistogram CPU_TURN = timer("cpuTurn");
+    public static final LatencyHistogram JOURNAL_COMMIT = timer("journalCommit");
+    public static final LatencyHistogram SAVE_REQUEST = timer("saveRequest");
+    public static final LatencyHistogram SAVE_WRITE = timer("saveWrite");
+    public static final LatencyHistogram LOAD = timer("load");
+    public static final LatencyHistogram UI_PULSE = timer("uiPulse");
+    public static final LatencyHistogram UI_REFRESH = timer("uiRefresh");
+
+    public static final Counter RUN_LATER = counter("runLater");
+    public static final Counter SAVES_COALESCED = counter("savesCoalesced");
+
+    static {
+        if (ENABLED) {
+            register();
+            startDump();
+        }
+    }
+
+    private Metrics() {}
+
+    /** Loads the class, registering the MBeans and starting the dump if metrics are on. */
+    public static void init() {}
+
+    /** Start time for a {@link LatencyHistogram#stop}; 0 (and no clock read) when metrics are off. */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static List<LatencyHistogram> timers() { return List.copyOf(TIMERS); }
+    public static List<Counter> counters() { return List.copyOf(COUNTERS); }
+
+    private static LatencyHistogram timer(String name) {
+        LatencyHistogram h = new LatencyHistogram(name, ENABLED);
+        TIMERS.add(h);
+        return h;
+    }
+
+    private static Counter counter(String name) {
+        Counter c = new Counter(name);
+        COUNTERS.add(c);
+        return c;
+    }
+
+    private static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (LatencyHistogram h : TIMERS) {
+                server.registerMBean(h, new ObjectName("com.javamaster44:type=Latency,name=" + h.name()));
+            }
+            for (Counter c : COUNTERS) {
+                server.registerMBean(c, new ObjectName("com.javamaster44:type=Counter,name=" + c.name()));
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register metrics MBeans: " + e.getMessage());
+        }
+    }
+
+    private static void startDump() {
+        String target = System.getProperty("battleship.metrics.dump");
+        if (target == null) return;
+        long interval = Long.getLong("battleship.metrics.interval", 10) * 1000;
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                dump(target);
+            }
+        }, "metrics-dump");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private static void dump(String target) {
+        if (target.equals("-")) {
+            System.out.print(toText());
+            return;
+        }
+        Path file = Path.of(target);
+        String text = target.endsWith(".json") ? toJson() : toText();
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, text);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    public static String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-15s %10s %10s %10s %10s %10s %10s%n",
+                "timer (us)", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (LatencyHistogram h : TIMERS) {
+            sb.append(String.format(Locale.ROOT, "%-15s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", h.name(), h.getCount(),
+                    h.getMeanMicros(), h.getP50Micros(), h.getP99Micros(), h.getP999Micros(), h.getMaxMicros()));
+        }
+        for (Counter c : COUNTERS) {
+            sb.append(String.format(Locale.ROOT, "%-15s %10d%n", c.name(), c.getCount()));
+        }
+        return sb.toString();
+    }
+
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder("{\"time\":").append(System.currentTimeMillis()).append(",\"timers\":{");
+        for (int i = 0; i < TIMERS.size(); i++) {
+            LatencyHistogram h = TIMERS.get(i);
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.ROOT,
+                    "\"%s\":{\"count\":%d,\"meanUs\":%.3f,\"p50Us\":%.3f,\"p99Us\":%.3f,\"p999Us\":%.3f,\"maxUs\":%.3f}",
+                    h.name(), h.getCount(), h.getMeanMicros(), h.getP50Micros(), h.getP99Micros(), h.getP999Micros(), h.getMaxMicros()));
+        }
+        sb.append("},\"counters\":{");
+        for (int i = 0; i < COUNTERS.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(COUNTERS.get(i).name()).append("\":").append(COUNTERS.get(i).getCount());
+        }
+        return sb.append("}}\n").toString();
+    }
+}
@@ -0,0 +1,34 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A powerup resolved as one batch, from firing to the combined sink event and save. */
+@Name("com.javamaster44.Powerup")
+@Label("Powerup Fired")
+@Category({"Battleship", "Game"})
+@Description("A powerup resolved as one batch, from firing to the combined sink event and save.")
+@StackTrace(false)
+public class PowerupEvent extends Event {
+    @Label("Powerup")
+    public String powerup;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Cells Fired")
+    public int cellsFired;
+
+    @Label("Ships Sunk")
+    public int shipsSunk;
+
+    @Label("Money Delta")
+    public int moneyDelta;
+}
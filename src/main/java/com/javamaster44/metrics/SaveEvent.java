@@ -0,0 +1,26 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A profile save handed to the background writer. */
+@Name("com.javamaster44.Save")
+@Label("Save Requested")
+@Category({"Battleship", "Persistence"})
+@Description("A profile save handed to the background writer.")
+@StackTrace(false)
+public class SaveEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Money")
+    public int money;
+
+    @Label("Coalesced")
+    @Description("Replaced a save still waiting to be written")
+    public boolean coalesced;
+}
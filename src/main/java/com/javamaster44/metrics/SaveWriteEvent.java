@@ -0,0 +1,25 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One profile encoded, written, forced to disk and moved into place. */
+@Name("com.javamaster44.SaveWrite")
+@Label("Save Written")
+@Category({"Battleship", "Persistence"})
+@Description("One profile encoded, written, forced to disk and moved into place.")
+@StackTrace(false)
+public class SaveWriteEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Bytes")
+    public int bytes;
+
+    @Label("Success")
+    public boolean success;
+}
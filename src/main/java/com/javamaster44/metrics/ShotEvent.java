@@ -0,0 +1,35 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A single shot by the player or the CPU, including any sink payout and save it triggered. */
+@Name("com.javamaster44.Shot")
+@Label("Shot")
+@Category({"Battleship", "Game"})
+@Description("A single shot by the player or the CPU, including any sink payout and save it triggered.")
+@StackTrace(false)
+public class ShotEvent extends Event {
+    @Label("Player Shot")
+    public boolean playerShot;
+
+    @Label("Cell")
+    public int cell;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Result")
+    @Description("miss, hit or sunk")
+    public String result;
+
+    @Label("Ship")
+    public String ship;
+}
@@ -0,0 +1,32 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A ship went down; the duration covers the listener and the save it triggered. */
+@Name("com.javamaster44.Sink")
+@Label("Ship Sunk")
+@Category({"Battleship", "Game"})
+@Description("A ship went down; the duration covers the listener and the save it triggered.")
+@StackTrace(false)
+public class SinkEvent extends Event {
+    @Label("Ship")
+    public String ship;
+
+    @Label("Length")
+    public int length;
+
+    @Label("Player Shot")
+    public boolean playerShot;
+
+    @Label("Money Delta")
+    public int moneyDelta;
+
+    @Label("Powerup")
+    @Description("Powerup that sank the ship, if any")
+    public String powerup;
+}
@@ -0,0 +1,28 @@
+package com.javamaster44.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One coalesced FX frame update; only slow ones are recorded by the bundled settings. */
+@Name("com.javamaster44.UiPulse")
+@Label("UI Pulse")
+@Category({"Battleship", "UI"})
+@Description("One coalesced FX frame update; only slow ones are recorded by the bundled settings.")
+@StackTrace(false)
+public class UiPulseEvent extends Event {
+    @Label("State Refreshed")
+    @Description("Money, state and powerup menu were redrawn")
+    public boolean stateRefreshed;
+
+    @Label("Player Cells")
+    @Description("Player board cells redrawn, or -1 for the whole board")
+    public int playerCells;
+
+    @Label("CPU Cells")
+    @Description("CPU board cells redrawn, or -1 for the whole board")
+    public int cpuCells;
+}
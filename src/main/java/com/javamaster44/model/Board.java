@@ -1,45 +1,153 @@
 package com.javamaster44.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
 
 public class Board {
     // 0 = Empty, 1 = Miss, 2 = Hit, 3 = Ship
-    private final Map<Character, List<Integer>> grid;
+    // Each state is a paged bit mask, bit index = row * width + col.
+    // A hit cell keeps its ship bit, so status = ship * (3 - hit) + miss.
+    private final GameVariant variant;
+    private final CellMask shipMask;
+    private final CellMask hitMask;
+    private final CellMask missMask;
+    private int unhitShipCells;
     private final List<Ship> ships;
-    private final Random random = new Random();
+    // Cell -> ship slot + 1 (0 = no ship), paged like the masks and kept in sync
+    // by placeShip/removeShip/reset
+    private static final int INDEX_PAGE_SHIFT = 12;
+    private final short[][] shipIndex;
+    private static final int MAX_SHIPS = Short.MAX_VALUE;
+    private Ship[] shipSlots = new Ship[8];
+    private final RandomGenerator random;
+    private PlacementGenerator placements;
+    private CellListener listener;
 
     public Board() {
-        grid = new HashMap<>();
-        ships = new ArrayList<>();
-        initializeBoard();
+        this(new Random());
     }
 
-    private void initializeBoard() {
-        for (char row = 'A'; row <= 'J'; row++) {
-            List<Integer> cols = new ArrayList<>();
-            for (int i = 0; i < 10; i++) {
-                cols.add(0); // 0 = Empty
-            }
-            grid.put(row, cols);
-        }
+    public Board(RandomGenerator random) {
+        this(GameVariant.STANDARD, random);
+    }
+
+    public Board(GameVariant variant, RandomGenerator random) {
+        this.variant = variant;
+        this.random = random;
+        int cells = variant.cells();
+        shipMask = new CellMask(cells);
+        hitMask = new CellMask(cells);
+        missMask = new CellMask(cells);
+        shipIndex = new short[(cells + (1 << INDEX_PAGE_SHIFT) - 1) >>> INDEX_PAGE_SHIFT][];
+        ships = new ArrayList<>();
     }
 
     public void reset() {
-        grid.clear();
+        shipMask.clearAll();
+        hitMask.clearAll();
+        missMask.clearAll();
+        unhitShipCells = 0;
         ships.clear();
-        initializeBoard();
+        for (short[] page : shipIndex) {
+            if (page != null) Arrays.fill(page, (short) 0);
+        }
+        Arrays.fill(shipSlots, null);
+        if (listener != null) listener.boardReset();
+    }
+
+    /** Registers the single listener told about every cell status change (null to remove). */
+    public void setCellListener(CellListener listener) {
+        this.listener = listener;
+    }
+
+    public GameVariant getVariant() { return variant; }
+    public int getWidth() { return variant.width(); }
+    public int getHeight() { return variant.height(); }
+
+    public int cellIndex(char row, int col) {
+        return variant.cellIndex(row - 'A', col);
     }
 
     public int getStatus(char row, int col) {
-        return grid.get(row).get(col);
+        return getStatus(cellIndex(row, col));
+    }
+
+    public int getStatus(int cell) {
+        int ship = shipMask.bit(cell);
+        int hit = hitMask.bit(cell);
+        int miss = missMask.bit(cell);
+        return ship * (3 - hit) + miss;
     }
 
     public void setStatus(char row, int col, int status) {
-        grid.get(row).set(col, status);
+        setStatus(cellIndex(row, col), status);
+    }
+
+    public void setStatus(int cell, int status) {
+        int old = getStatus(cell);
+        int high = status >>> 1;
+        shipMask.assign(cell, high);
+        hitMask.assign(cell, high & ~status & 1);
+        missMask.assign(cell, status & ~high & 1);
+        unhitShipCells += (status == 3 ? 1 : 0) - (old == 3 ? 1 : 0);
+        if (old != status && listener != null) listener.cellChanged(cell);
+    }
+
+    /**
+     * Fires at {@code cell}: marks it hit or missed and damages the ship there.
+     * The one place the shot rules live; the engine, network matches and
+     * simulations all go through it.
+     */
+    public ShotResult fire(int cell) {
+        int status = getStatus(cell);
+        if (status == 1 || status == 2) return ShotResult.REPEAT;
+        if (status != 3) {
+            setStatus(cell, 1);
+            return ShotResult.MISS;
+        }
+        setStatus(cell, 2);
+        Ship s = getShipAt(cell);
+        if (s == null) return ShotResult.HIT;
+        s.hit();
+        return s.isSunk() ? ShotResult.SUNK : ShotResult.HIT;
+    }
+
+    /** Calls {@code action} with every fired cell (hit or miss) in ascending order; costs the pages ever touched, not the board area. */
+    public void forEachShot(IntConsumer action) {
+        for (int p = 0; p < hitMask.pageCount(); p++) {
+            long[] hits = hitMask.pageIfPresent(p), misses = missMask.pageIfPresent(p);
+            if (hits == null && misses == null) continue;
+            int base = p << CellMask.PAGE_SHIFT;
+            for (int w = 0; w < CellMask.WORDS_PER_PAGE; w++) {
+                long word = (hits == null ? 0 : hits[w]) | (misses == null ? 0 : misses[w]);
+                while (word != 0) {
+                    action.accept(base + (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /** Tells the listener to redraw a cell whose status is unchanged, e.g. because its ship is no longer sunk. */
+    public void touch(int cell) {
+        if (listener != null) listener.cellChanged(cell);
+    }
+
+    /** True if every cell of the straight run is empty (status 0). */
+    public boolean isFree(int start, int length, boolean horizontal) {
+        if (horizontal) {
+            // Hit cells keep their ship bit, so ship | miss covers every non-empty cell
+            return !shipMask.anyInRun(start, length) && !missMask.anyInRun(start, length);
+        }
+        int width = variant.width();
+        for (int i = 0, cell = start; i < length; i++, cell += width) {
+            if ((shipMask.bit(cell) | missMask.bit(cell)) != 0) return false;
+        }
+        return true;
     }
 
     /**
@@ -55,11 +163,13 @@ public class Board {
         }
 
         if (target != null) {
-            for (String coord : target.getCoordinates()) {
-                char r = coord.charAt(0);
-                int c = Integer.parseInt(coord.substring(1));
-                setStatus(r, c, 0); // Reset to empty
+            int[] cells = target.getCells();
+            int slot = slotAt(cells[0]) - 1;
+            for (int i = 0; i < target.getCellCount(); i++) {
+                setStatus(cells[i], 0); // Reset to empty
+                setSlot(cells[i], 0);
             }
+            shipSlots[slot] = null;
             ships.remove(target);
         }
     }
@@ -68,72 +178,91 @@ public class Board {
      * Tries to place a ship. Returns true if successful.
      */
     public boolean placeShip(String name, int length, int reward, char row, int col, boolean horizontal) {
-        if (!isValidPlacement(row, col, length, horizontal)) {
+        return placeShip(new ShipDef(name, length, reward), row - 'A', col, horizontal);
+    }
+
+    public boolean placeShip(ShipDef def, int row, int col, boolean horizontal) {
+        if (!isValidPlacement(row, col, def.length(), horizontal)) {
             return false;
         }
+        int slot = freeSlot();
+        if (slot < 0) return false; // every ship id a short page can hold is taken
 
-        Ship ship = new Ship(name, length, reward);
-        for (int i = 0; i < length; i++) {
-            char r = horizontal ? row : (char) (row + i);
-            int c = horizontal ? col + i : col;
-            setStatus(r, c, 3); // 3 = Ship
-            ship.addCoordinate(r, c);
+        Ship ship = new Ship(def.name(), def.length(), def.reward());
+        int start = variant.cellIndex(row, col);
+        int step = horizontal ? 1 : variant.width();
+        for (int i = 0, cell = start; i < def.length(); i++, cell += step) {
+            setStatus(cell, 3); // 3 = Ship
+            setSlot(cell, slot + 1);
+            ship.addCell(cell);
         }
+        shipSlots[slot] = ship;
         ships.add(ship);
         return true;
     }
 
-    public void placeShipsRandomly() {
-        // Definitions matches GameController definitions
-        createRandomShip("Carrier", 5, 350);
-        createRandomShip("Battleship", 4, 600);
-        createRandomShip("Submarine", 3, 800);
-        createRandomShip("Destroyer", 3, 800);
-        createRandomShip("Patrol Boat", 2, 1100);
-    }
-
-    private void createRandomShip(String name, int length, int reward) {
-        boolean placed = false;
-        while (!placed) {
-            int rowIdx = random.nextInt(10);
-            int colIdx = random.nextInt(10);
-            boolean horizontal = random.nextBoolean();
-            char rowChar = (char) ('A' + rowIdx);
-
-            if (placeShip(name, length, reward, rowChar, colIdx, horizontal)) {
-                placed = true;
-            }
+    // Cells store slot + 1 as a short, so slots stop at MAX_SHIPS; -1 once they're all used
+    private int freeSlot() {
+        for (int i = 0; i < shipSlots.length; i++) {
+            if (shipSlots[i] == null) return i;
         }
+        int slot = shipSlots.length;
+        if (slot == MAX_SHIPS) return -1;
+        shipSlots = Arrays.copyOf(shipSlots, Math.min(slot * 2, MAX_SHIPS));
+        return slot;
     }
 
-    private boolean isValidPlacement(char row, int col, int length, boolean horizontal) {
-        if (horizontal) {
-            if (col + length > 10) return false;
-            for (int i = 0; i < length; i++) {
-                if (getStatus(row, col + i) != 0) return false;
-            }
-        } else {
-            if ((row - 'A') + length > 10) return false;
-            for (int i = 0; i < length; i++) {
-                if (getStatus((char) (row + i), col) != 0) return false;
-            }
+    private int slotAt(int cell) {
+        short[] page = shipIndex[cell >>> INDEX_PAGE_SHIFT];
+        return page == null ? 0 : page[cell & ((1 << INDEX_PAGE_SHIFT) - 1)];
+    }
+
+    private void setSlot(int cell, int slot) {
+        int p = cell >>> INDEX_PAGE_SHIFT;
+        if (shipIndex[p] == null) {
+            if (slot == 0) return;
+            shipIndex[p] = new short[1 << INDEX_PAGE_SHIFT];
         }
-        return true;
+        shipIndex[p][cell & ((1 << INDEX_PAGE_SHIFT) - 1)] = (short) slot;
     }
 
-    public Ship getShipAt(char row, int col) {
-        String coord = "" + row + col;
-        for (Ship s : ships) {
-            if (s.getCoordinates().contains(coord)) {
-                return s;
-            }
+    /** Places the variant's whole fleet at random. */
+    public void placeShipsRandomly() {
+        if (placements == null) {
+            placements = new PlacementGenerator(variant);
+        }
+        int[] layout = placements.sample(random, this);
+        if (layout == null) {
+            throw new IllegalStateException("No room left for the fleet");
         }
-        return null;
+        placements.apply(this, layout);
+    }
+
+    private boolean isValidPlacement(int row, int col, int length, boolean horizontal) {
+        if (row < 0 || col < 0 || length <= 0) return false;
+        if (row >= variant.height() || col >= variant.width()) return false;
+        if (horizontal ? col + length > variant.width() : row + length > variant.height()) return false;
+        return isFree(variant.cellIndex(row, col), length, horizontal);
+    }
+
+    public Ship getShipAt(char row, int col) {
+        return getShipAt(cellIndex(row, col));
+    }
+
+    public Ship getShipAt(int cell) {
+        int id = slotAt(cell);
+        return id == 0 ? null : shipSlots[id - 1];
     }
 
     public List<Ship> getShips() { return ships; }
 
+    // For BoardState snapshots; read only
+    CellMask shipMask() { return shipMask; }
+    CellMask hitMask() { return hitMask; }
+    CellMask missMask() { return missMask; }
+
     public boolean allShipsSunk() {
-        return ships.stream().allMatch(Ship::isSunk);
+        // Every ship cell has been hit (an empty board counts as sunk, same as before)
+        return unhitShipCells == 0;
     }
 }
@@ -0,0 +1,204 @@
+package com.javamaster44.model;
+
+import java.util.List;
+
+/**
+ * An immutable board for look-ahead search and what-if previews. {@link #fire}
+ * returns a new state and leaves this one untouched, so a search can branch
+ * from any state as often as it likes.
+ * <p>
+ * Forks are cheap because almost everything is shared:
+ * <ul>
+ * <li>The fleet (ship cells, the cell to ship index and lengths) never changes
+ * after {@link #of}. Every state from one snapshot shares a single copy.</li>
+ * <li>Shots are a bit trie of 4096-cell leaves under 64-way nodes. A shot copies
+ * only its path: one leaf of at most 64 words, plus one node per level on boards
+ * over 4096 cells. A standard board's leaf is two words.</li>
+ * <li>Ship damage is one int per ship. A miss shares the array; a hit copies it.</li>
+ * </ul>
+ * Statuses use {@link Board}'s codes: 0 empty, 1 miss, 2 hit, 3 ship.
+ */
+public final class BoardState {
+    private static final int LEAF_SHIFT = 12;
+    private static final int FANOUT_SHIFT = 6;
+    private static final int FANOUT_MASK = (1 << FANOUT_SHIFT) - 1;
+    private static final int INDEX_PAGE_SHIFT = 12;
+    private static final int INDEX_PAGE_MASK = (1 << INDEX_PAGE_SHIFT) - 1;
+
+    // Shared by every state forked from one snapshot
+    private static final class Fleet {
+        final GameVariant variant;
+        final int levels;
+        final int leafWords;
+        final Object cells;
+        // Cell -> ship + 1 (0 = no ship), paged
+        final short[][] index;
+        final String[] names;
+        final int[] lengths;
+
+        Fleet(GameVariant variant, int levels, int leafWords, Object cells, short[][] index, String[] names, int[] lengths) {
+            this.variant = variant;
+            this.levels = levels;
+            this.leafWords = leafWords;
+            this.cells = cells;
+            this.index = index;
+            this.names = names;
+            this.lengths = lengths;
+        }
+    }
+
+    private final Fleet fleet;
+    private final Object shots;
+    private final int[] damage;
+    private final int unhitShipCells;
+    private final int shotCount;
+
+    private BoardState(Fleet fleet, Object shots, int[] damage, int unhitShipCells, int shotCount) {
+        this.fleet = fleet;
+        this.shots = shots;
+        this.damage = damage;
+        this.unhitShipCells = unhitShipCells;
+        this.shotCount = shotCount;
+    }
+
+    /** Snapshots the board's ships and shots. Costs one pass over its touched pages and ship cells. */
+    public static BoardState of(Board board) {
+        GameVariant variant = board.getVariant();
+        int cells = variant.cells();
+        int leaves = (cells + (1 << LEAF_SHIFT) - 1) >>> LEAF_SHIFT;
+        int levels = 0;
+        for (int reach = 1; reach < leaves; reach <<= FANOUT_SHIFT) levels++;
+        // A lone leaf only needs to cover the board
+        int leafWords = levels == 0 ? (cells + 63) >>> 6 : 1 << (LEAF_SHIFT - 6);
+
+        List<Ship> ships = board.getShips();
+        String[] names = new String[ships.size()];
+        int[] lengths = new int[ships.size()];
+        int[] damage = new int[ships.size()];
+        short[][] index = new short[(cells + INDEX_PAGE_MASK) >>> INDEX_PAGE_SHIFT][];
+        int unhit = 0;
+        for (int s = 0; s < ships.size(); s++) {
+            Ship ship = ships.get(s);
+            names[s] = ship.getName();
+            lengths[s] = ship.getCellCount();
+            int[] shipCells = ship.getCells();
+            for (int i = 0; i < ship.getCellCount(); i++) {
+                int cell = shipCells[i];
+                short[] page = index[cell >>> INDEX_PAGE_SHIFT];
+                if (page == null) page = index[cell >>> INDEX_PAGE_SHIFT] = new short[1 << INDEX_PAGE_SHIFT];
+                page[cell & INDEX_PAGE_MASK] = (short) (s + 1);
+                if (board.getStatus(cell) == 2) damage[s]++;
+                else unhit++;
+            }
+        }
+
+        Object shipCells = copy(levels, leafWords, board.shipMask(), null);
+        Object shots = copy(levels, leafWords, board.hitMask(), board.missMask());
+        Fleet fleet = new Fleet(variant, levels, leafWords, shipCells, index, names, lengths);
+        return new BoardState(fleet, shots, damage, unhit, countShots(board));
+    }
+
+    public GameVariant variant() { return fleet.variant; }
+
+    public int status(int cell) {
+        int ship = bit(fleet.cells, fleet.levels, cell);
+        int shot = bit(shots, fleet.levels, cell);
+        return ship * (3 - shot) + (1 - ship) * shot;
+    }
+
+    public boolean isShot(int cell) {
+        return bit(shots, fleet.levels, cell) != 0;
+    }
+
+    /** The state after a shot at {@code cell}; this state itself if the cell was already shot. */
+    public BoardState fire(int cell) {
+        if (isShot(cell)) return this;
+        Object next = withBit(shots, fleet.levels, fleet.leafWords, cell);
+        int ship = shipAt(cell);
+        if (ship < 0) return new BoardState(fleet, next, damage, unhitShipCells, shotCount + 1);
+        int[] hit = damage.clone();
+        hit[ship]++;
+        return new BoardState(fleet, next, hit, unhitShipCells - 1, shotCount + 1);
+    }
+
+    /** Index of the ship on {@code cell}, or -1. Ships keep the board's order. */
+    public int shipAt(int cell) {
+        short[] page = fleet.index[cell >>> INDEX_PAGE_SHIFT];
+        return page == null ? -1 : page[cell & INDEX_PAGE_MASK] - 1;
+    }
+
+    public int shipCount() { return fleet.lengths.length; }
+    public String shipName(int ship) { return fleet.names[ship]; }
+    public int shipLength(int ship) { return fleet.lengths[ship]; }
+    public int damage(int ship) { return damage[ship]; }
+
+    public boolean isSunk(int ship) {
+        return damage[ship] >= fleet.lengths[ship];
+    }
+
+    public boolean allShipsSunk() {
+        return unhitShipCells == 0;
+    }
+
+    /** Cells shot so far, hits and misses. */
+    public int shotCount() { return shotCount; }
+
+    private static int bit(Object node, int levels, int cell) {
+        for (int l = levels; l > 0 && node != null; l--) {
+            node = ((Object[]) node)[(cell >>> (LEAF_SHIFT + FANOUT_SHIFT * (l - 1))) & FANOUT_MASK];
+        }
+        return node == null ? 0 : (int) (((long[]) node)[(cell >>> 6) & FANOUT_MASK] >>> cell) & 1;
+    }
+
+    // Copies the path down to the cell's leaf and sets the bit there; everything else is shared
+    private static Object withBit(Object node, int levels, int leafWords, int cell) {
+        if (levels == 0) {
+            long[] leaf = node == null ? new long[leafWords] : ((long[]) node).clone();
+            leaf[(cell >>> 6) & FANOUT_MASK] |= 1L << cell;
+            return leaf;
+        }
+        Object[] inner = node == null ? new Object[1 << FANOUT_SHIFT] : ((Object[]) node).clone();
+        int i = (cell >>> (LEAF_SHIFT + FANOUT_SHIFT * (levels - 1))) & FANOUT_MASK;
+        inner[i] = withBit(inner[i], levels - 1, leafWords, cell);
+        return inner;
+    }
+
+    // Builds a trie holding a | b (b may be null), leaf by leaf; CellMask pages are the same 4096 cells
+    private static Object copy(int levels, int leafWords, CellMask a, CellMask b) {
+        Object root = null;
+        for (int p = 0; p < a.pageCount(); p++) {
+            long[] pa = a.pageIfPresent(p);
+            long[] pb = b == null ? null : b.pageIfPresent(p);
+            if (pa == null && pb == null) continue;
+            long[] leaf = new long[leafWords];
+            for (int w = 0; w < leafWords; w++) {
+                leaf[w] = (pa == null ? 0 : pa[w]) | (pb == null ? 0 : pb[w]);
+            }
+            root = putLeaf(root, levels, p, leaf);
+        }
+        return root;
+    }
+
+    private static Object putLeaf(Object node, int levels, int leaf, long[] words) {
+        if (levels == 0) return words;
+        Object[] inner = node == null ? new Object[1 << FANOUT_SHIFT] : (Object[]) node;
+        int i = (leaf >>> (FANOUT_SHIFT * (levels - 1))) & FANOUT_MASK;
+        inner[i] = putLeaf(inner[i], levels - 1, leaf, words);
+        return inner;
+    }
+
+    private static int countShots(Board board) {
+        int n = 0;
+        for (int p = 0; p < board.hitMask().pageCount(); p++) {
+            n += bitCount(board.hitMask().pageIfPresent(p)) + bitCount(board.missMask().pageIfPresent(p));
+        }
+        return n;
+    }
+
+    private static int bitCount(long[] words) {
+        if (words == null) return 0;
+        int n = 0;
+        for (long w : words) n += Long.bitCount(w);
+        return n;
+    }
+}
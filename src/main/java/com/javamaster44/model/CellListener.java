@@ -0,0 +1,9 @@
+package com.javamaster44.model;
+
+/** Notified by a {@link Board} whenever the status of one of its cells changes. */
+public interface CellListener {
+    void cellChanged(int cell);
+
+    /** Every cell may have changed (the board was reset). */
+    default void boardReset() {}
+}
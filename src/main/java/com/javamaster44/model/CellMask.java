@@ -0,0 +1,96 @@
+package com.javamaster44.model;
+
+import java.util.Arrays;
+
+/**
+ * A bitset over board cells, split into 4096-cell pages that are only allocated
+ * when a bit in them is first set. Memory follows the cells that were touched,
+ * not the board area, so a 1000x1000 board with a handful of shots costs a few
+ * hundred bytes per mask. Cleared pages are zeroed and kept for reuse.
+ */
+public final class CellMask {
+    static final int PAGE_SHIFT = 12;
+    static final int WORDS_PER_PAGE = 1 << (PAGE_SHIFT - 6);
+    private static final int WORD_MASK = WORDS_PER_PAGE - 1;
+
+    private final long[][] pages;
+
+    public CellMask(int cells) {
+        pages = new long[(cells + (1 << PAGE_SHIFT) - 1) >>> PAGE_SHIFT][];
+    }
+
+    /** 1 if the cell is set, else 0. */
+    public int bit(int cell) {
+        long[] page = pages[cell >>> PAGE_SHIFT];
+        return page == null ? 0 : (int) (page[(cell >>> 6) & WORD_MASK] >>> cell) & 1;
+    }
+
+    public boolean get(int cell) {
+        return bit(cell) != 0;
+    }
+
+    public void set(int cell) {
+        page(cell)[(cell >>> 6) & WORD_MASK] |= 1L << cell;
+    }
+
+    public void clear(int cell) {
+        long[] page = pages[cell >>> PAGE_SHIFT];
+        if (page != null) page[(cell >>> 6) & WORD_MASK] &= ~(1L << cell);
+    }
+
+    /** Sets or clears the cell without branching on {@code value} (0 or 1). */
+    public void assign(int cell, int value) {
+        long[] page = pages[cell >>> PAGE_SHIFT];
+        if (page == null) {
+            if (value == 0) return;
+            page = page(cell);
+        }
+        int w = (cell >>> 6) & WORD_MASK;
+        long bit = 1L << cell;
+        page[w] = (page[w] & ~bit) | (-(long) value & bit);
+    }
+
+    /** True if any of the {@code length} consecutive cells from {@code start} is set, tested a word at a time. */
+    public boolean anyInRun(int start, int length) {
+        int cell = start;
+        int remaining = length;
+        while (remaining > 0) {
+            int offset = cell & 63;
+            int n = Math.min(remaining, 64 - offset);
+            long[] page = pages[cell >>> PAGE_SHIFT];
+            if (page != null) {
+                long run = (n == 64 ? -1L : (1L << n) - 1) << offset;
+                if ((page[(cell >>> 6) & WORD_MASK] & run) != 0) return true;
+            }
+            cell += n;
+            remaining -= n;
+        }
+        return false;
+    }
+
+    /** Clears every bit; cost is proportional to the pages ever touched. */
+    public void clearAll() {
+        for (long[] page : pages) {
+            if (page != null) Arrays.fill(page, 0L);
+        }
+    }
+
+    int pageCount() {
+        return pages.length;
+    }
+
+    /** Backing words of page {@code p} (4096 cells), or null if never touched. Read only. */
+    long[] pageIfPresent(int p) {
+        return pages[p];
+    }
+
+    private long[] page(int cell) {
+        int p = cell >>> PAGE_SHIFT;
+        long[] page = pages[p];
+        if (page == null) {
+            page = new long[WORDS_PER_PAGE];
+            pages[p] = page;
+        }
+        return page;
+    }
+}
@@ -0,0 +1,103 @@
+package com.javamaster44.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Board dimensions and fleet for one game. Cells are addressed by packed index
+ * {@code row * width + col} everywhere below the UI.
+ * <p>
+ * The FX game and the simulators pick their variant up from system properties,
+ * see {@link #fromSystemProperties()}.
+ */
+public record GameVariant(int width, int height, List<ShipDef> fleet) {
+    public static final int MAX_DIMENSION = 4096;
+
+    public static final GameVariant STANDARD = new GameVariant(10, 10, List.of(
+            new ShipDef("Carrier", 5, 350),
+            new ShipDef("Battleship", 4, 600),
+            new ShipDef("Submarine", 3, 800),
+            new ShipDef("Destroyer", 3, 800),
+            new ShipDef("Patrol Boat", 2, 1100)
+    ));
+
+    public GameVariant {
+        if (width < 1 || height < 1 || width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Board must be between 1x1 and " + MAX_DIMENSION + "x" + MAX_DIMENSION);
+        }
+        if (fleet.isEmpty() || fleet.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Fleet must have between 1 and " + Short.MAX_VALUE + " ships");
+        }
+        for (ShipDef def : fleet) {
+            if (def.length() < 1 || def.length() > Math.max(width, height)) {
+                throw new IllegalArgumentException(def.name() + " does not fit on a " + width + "x" + height + " board");
+            }
+        }
+        fleet = List.copyOf(fleet);
+    }
+
+    public int cells() {
+        return width * height;
+    }
+
+    public int cellIndex(int row, int col) {
+        return row * width + col;
+    }
+
+    public int maxShipLength() {
+        int max = 0;
+        for (ShipDef def : fleet) max = Math.max(max, def.length());
+        return max;
+    }
+
+    public ShipDef findShip(String name) {
+        for (ShipDef def : fleet) {
+            if (def.name().equals(name)) return def;
+        }
+        return null;
+    }
+
+    /** Spreadsheet-style row label: A..Z, AA..AZ, ... */
+    public static String rowLabel(int row) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = row + 1; r > 0; r = (r - 1) / 26) {
+            sb.append((char) ('A' + (r - 1) % 26));
+        }
+        return sb.reverse().toString();
+    }
+
+    /** The standard fleet repeated {@code copies} times, numbering the extra ships. */
+    public static List<ShipDef> repeatedFleet(List<ShipDef> fleet, int copies) {
+        List<ShipDef> result = new ArrayList<>(fleet.size() * copies);
+        for (int i = 0; i < copies; i++) {
+            for (ShipDef def : fleet) {
+                result.add(i == 0 ? def : new ShipDef(def.name() + " " + (i + 1), def.length(), def.reward()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads {@code battleship.width}, {@code battleship.height}, {@code battleship.fleet}
+     * ("Name:length:reward,...") and {@code battleship.fleetCopies}, defaulting to {@link #STANDARD}.
+     */
+    public static GameVariant fromSystemProperties() {
+        int width = Integer.getInteger("battleship.width", STANDARD.width());
+        int height = Integer.getInteger("battleship.height", STANDARD.height());
+        List<ShipDef> fleet = STANDARD.fleet();
+        String spec = System.getProperty("battleship.fleet");
+        if (spec != null && !spec.isBlank()) {
+            fleet = new ArrayList<>();
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Fleet entries must be Name:length:reward, got " + entry);
+                }
+                fleet.add(new ShipDef(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+            }
+        }
+        int copies = Integer.getInteger("battleship.fleetCopies", 1);
+        if (copies > 1) fleet = repeatedFleet(fleet, copies);
+        return new GameVariant(width, height, fleet);
+    }
+}
@@ -0,0 +1,155 @@
+package com.javamaster44.model;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random fleet layouts without unbounded retry loops. The placements of each
+ * ship length are numbered arithmetically (no per-placement tables, so this
+ * works on any variant size), and each ship is drawn uniformly from the
+ * placements that don't overlap the board or the ships already chosen.
+ * A handful of direct draws are tried first; if none is legal the legal set is
+ * counted and the k-th legal placement taken, so a ship never costs more than
+ * two passes over its placements no matter how crowded the board is.
+ * <p>
+ * A layout is an {@code int[]} of encoded placements, one per ship in fleet
+ * order; see {@link #startCell}, {@link #isHorizontal} and {@link #apply}.
+ * Instances hold a scratch mask, so use one per thread.
+ */
+public class PlacementGenerator {
+    // Direct draws tried before falling back to the legal-set scan
+    private static final int QUICK_DRAWS = 4;
+
+    private final GameVariant variant;
+    private final int[] lengths;
+    // Cells chosen for the layout being sampled
+    private final CellMask chosen;
+
+    public PlacementGenerator(GameVariant variant) {
+        this.variant = variant;
+        this.lengths = variant.fleet().stream().mapToInt(ShipDef::length).toArray();
+        this.chosen = new CellMask(variant.cells());
+    }
+
+    public int shipCount() { return lengths.length; }
+    public static int startCell(int placement) { return placement >>> 1; }
+    public static boolean isHorizontal(int placement) { return (placement & 1) != 0; }
+
+    /** Draws a layout for the whole fleet on an empty board. */
+    public int[] sample(RandomGenerator random) {
+        return sample(random, null);
+    }
+
+    /**
+     * Draws a layout avoiding the cells already occupied on {@code board} (may be null).
+     * Returns null if some ship has no legal placement left.
+     */
+    public int[] sample(RandomGenerator random, Board board) {
+        int[] layout = new int[lengths.length];
+        int placed = 0;
+        try {
+            for (; placed < lengths.length; placed++) {
+                int len = lengths[placed];
+                int total = horizontalCount(len) + verticalCount(len);
+                if (total == 0) return null;
+
+                int pick = -1;
+                for (int attempt = 0; attempt < QUICK_DRAWS && pick < 0; attempt++) {
+                    int p = random.nextInt(total);
+                    if (isLegal(p, len, board)) pick = p;
+                }
+
+                if (pick < 0) {
+                    // A uniform draw that turned out legal is a uniform legal pick; otherwise
+                    // count the legal set and take the k-th member
+                    int legal = 0;
+                    for (int p = 0; p < total; p++) {
+                        if (isLegal(p, len, board)) legal++;
+                    }
+                    if (legal == 0) return null;
+                    int k = random.nextInt(legal);
+                    for (int p = 0; p < total; p++) {
+                        if (isLegal(p, len, board) && k-- == 0) {
+                            pick = p;
+                            break;
+                        }
+                    }
+                }
+
+                layout[placed] = encode(pick, len);
+                mark(layout[placed], len, true);
+            }
+            return layout;
+        } finally {
+            for (int s = 0; s < placed; s++) mark(layout[s], lengths[s], false);
+        }
+    }
+
+    /** Reproducible bulk generation: the same seed always yields the same layouts. */
+    public int[][] sampleMany(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] layouts = new int[count][];
+        for (int i = 0; i < count; i++) {
+            layouts[i] = sample(random);
+        }
+        return layouts;
+    }
+
+    /**
+     * Places a sampled layout on the board, one ship per fleet entry. Returns false
+     * (leaving any ships already placed) if a placement is rejected by the board.
+     */
+    public boolean apply(Board board, int[] layout) {
+        int width = variant.width();
+        for (int s = 0; s < layout.length; s++) {
+            int cell = startCell(layout[s]);
+            if (!board.placeShip(variant.fleet().get(s), cell / width, cell % width, isHorizontal(layout[s]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int horizontalCount(int len) {
+        return len > variant.width() ? 0 : variant.height() * (variant.width() - len + 1);
+    }
+
+    private int verticalCount(int len) {
+        return len > variant.height() ? 0 : variant.width() * (variant.height() - len + 1);
+    }
+
+    // Placement numbers [0, horizontalCount) run row by row, the vertical ones column by column
+    private int encode(int p, int len) {
+        int h = horizontalCount(len);
+        if (p < h) {
+            int perRow = variant.width() - len + 1;
+            return variant.cellIndex(p / perRow, p % perRow) << 1 | 1;
+        }
+        p -= h;
+        int perCol = variant.height() - len + 1;
+        return variant.cellIndex(p % perCol, p / perCol) << 1;
+    }
+
+    private boolean isLegal(int p, int len, Board board) {
+        int placement = encode(p, len);
+        int start = startCell(placement);
+        boolean horizontal = isHorizontal(placement);
+        if (horizontal ? chosen.anyInRun(start, len) : anyChosenInColumn(start, len)) return false;
+        return board == null || board.isFree(start, len, horizontal);
+    }
+
+    private boolean anyChosenInColumn(int start, int len) {
+        for (int i = 0, cell = start; i < len; i++, cell += variant.width()) {
+            if (chosen.get(cell)) return true;
+        }
+        return false;
+    }
+
+    private void mark(int placement, int len, boolean set) {
+        int step = isHorizontal(placement) ? 1 : variant.width();
+        for (int i = 0, cell = startCell(placement); i < len; i++, cell += step) {
+            if (set) chosen.set(cell);
+            else chosen.clear(cell);
+        }
+    }
+}
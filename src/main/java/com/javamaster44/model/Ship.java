@@ -1,15 +1,13 @@
 package com.javamaster44.model;
 
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Ship {
     private final String name;
     private final int length;
     private int hits;
-    // Store coordinates as "A1", "B2", etc. for easy lookup
-    private final List<String> coordinates = new ArrayList<>();
+    // Cells packed as board indices (row * width + col)
+    private final int[] cells;
+    private int placed;
     private final int reward;
 
     public Ship(String name, int length, int reward) {
@@ -17,21 +15,32 @@ public class Ship {
         this.length = length;
         this.reward = reward;
         this.hits = 0;
+        this.cells = new int[length];
     }
 
     public String getName() { return name; }
     public int getLength() { return length; }
-    public List<String> getCoordinates() { return coordinates; }
     public int getReward() { return reward; }
 
-    public void addCoordinate(char row, int col) {
-        coordinates.add("" + row + col);
+    /** Number of cells placed so far; the first {@code getCellCount()} entries of {@link #getCells()} are valid. */
+    public int getCellCount() { return placed; }
+
+    /** Backing array of packed cell indices. Do not modify. */
+    public int[] getCells() { return cells; }
+
+    public void addCell(int cell) {
+        cells[placed++] = cell;
     }
 
     public void hit() {
         hits++;
     }
 
+    /** Takes back one hit, for stepping a replay backwards. */
+    public void unhit() {
+        if (hits > 0) hits--;
+    }
+
     public boolean isSunk() {
         return hits >= length;
     }
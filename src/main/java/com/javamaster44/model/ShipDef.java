@@ -0,0 +1,4 @@
+package com.javamaster44.model;
+
+/** One ship of a fleet: its name, length in cells and the reward for sinking it. */
+public record ShipDef(String name, int length, int reward) {}
@@ -0,0 +1,13 @@
+package com.javamaster44.model;
+
+/** What {@link Board#fire} did with a shot. */
+public enum ShotResult {
+    /** The cell had already been fired at; nothing changed. */
+    REPEAT,
+    MISS,
+    HIT,
+    /** A hit that sank its ship. */
+    SUNK;
+
+    public boolean isHit() { return this == HIT || this == SUNK; }
+}
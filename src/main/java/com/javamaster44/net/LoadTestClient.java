@@ -0,0 +1,193 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loopback load generator for {@link MatchServer}. Opens N connections (one
+ * virtual thread each), waits until all of them are connected so the server
+ * really holds N matches at once, then has every connection play its games by
+ * firing at the cells in a random order.
+ *
+ * <pre>java -cp target/classes com.javamaster44.net.LoadTestClient [host] [port] [connections] [gamesPerConnection] [cpuStrategy]</pre>
+ *
+ * With no host/port (or host "local") an in-process server is started on an
+ * ephemeral port. Prints throughput and a log2-bucketed round-trip histogram.
+ */
+public class LoadTestClient {
+    // Round-trip latency buckets: bucket b holds times in [2^(b-1), 2^b) microseconds
+    private static final int BUCKETS = 32;
+
+    private static final class Worker implements Runnable {
+        private final InetSocketAddress address;
+        private final int games;
+        private final int strategy;
+        private final SplittableRandom random;
+        private final CountDownLatch connected;
+        private final LongAdder shots, finished, wins, failures;
+        final long[] latency = new long[BUCKETS];
+        private int[] order = new int[0];
+
+        Worker(InetSocketAddress address, int games, int strategy, SplittableRandom random, CountDownLatch connected,
+               LongAdder shots, LongAdder finished, LongAdder wins, LongAdder failures) {
+            this.address = address;
+            this.games = games;
+            this.strategy = strategy;
+            this.random = random;
+            this.connected = connected;
+            this.shots = shots;
+            this.finished = finished;
+            this.wins = wins;
+            this.failures = failures;
+        }
+
+        @Override
+        public void run() {
+            Socket socket = new Socket();
+            try (socket) {
+                try {
+                    socket.setTcpNoDelay(true);
+                    socket.connect(address, 30_000);
+                } finally {
+                    connected.countDown();
+                }
+                connected.await();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 256));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 256));
+                for (int g = 0; g < games; g++) {
+                    play(in, out);
+                }
+                out.writeByte(Protocol.QUIT);
+                out.flush();
+            } catch (IOException | InterruptedException e) {
+                failures.increment();
+            }
+        }
+
+        private void play(DataInputStream in, DataOutputStream out) throws IOException {
+            out.writeByte(Protocol.NEW_GAME);
+            out.writeByte(strategy);
+            out.flush();
+            expect(in, Protocol.STARTED);
+            int cells = in.readUnsignedShort() * in.readUnsignedShort();
+            if (order.length != cells) {
+                order = new int[cells];
+                for (int i = 0; i < cells; i++) order[i] = i;
+            }
+
+            long localShots = 0;
+            // Lazy Fisher-Yates: draw the next cell as we go, stopping at game over
+            for (int i = 0; i < cells; i++) {
+                int j = i + random.nextInt(cells - i);
+                int cell = order[j];
+                order[j] = order[i];
+                order[i] = cell;
+
+                long start = System.nanoTime();
+                out.writeByte(Protocol.SHOT);
+                out.writeInt(cell);
+                out.flush();
+                expect(in, Protocol.RESULT);
+                int outcome = in.readUnsignedByte();
+                in.readInt();
+                long micros = (System.nanoTime() - start) / 1000;
+                latency[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))]++;
+                localShots++;
+
+                if ((outcome & Protocol.GAME_OVER) != 0) {
+                    if ((outcome & Protocol.PLAYER_WON) != 0) wins.increment();
+                    finished.increment();
+                    break;
+                }
+            }
+            shots.add(localShots);
+        }
+
+        private static void expect(DataInputStream in, int opcode) throws IOException {
+            int op = in.readUnsignedByte();
+            if (op == opcode) return;
+            if (op == Protocol.ERROR) throw new IOException("Server error " + in.readUnsignedByte());
+            throw new IOException("Unexpected opcode " + op);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "local";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7744;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        StrategyType cpu = args.length > 4 ? StrategyType.valueOf(args[4]) : StrategyType.HUNT_TARGET;
+
+        MatchServer local = null;
+        InetSocketAddress address;
+        if (host.equals("local")) {
+            local = new MatchServer(0, GameVariant.fromSystemProperties());
+            local.start();
+            address = new InetSocketAddress("127.0.0.1", local.getPort());
+        } else {
+            address = new InetSocketAddress(host, port);
+        }
+
+        LongAdder shots = new LongAdder(), finished = new LongAdder(), wins = new LongAdder(), failures = new LongAdder();
+        CountDownLatch connected = new CountDownLatch(connections);
+        SplittableRandom random = new SplittableRandom();
+        List<Worker> workers = new ArrayList<>(connections);
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < connections; i++) {
+            Worker w = new Worker(address, games, cpu.ordinal(), random.split(), connected, shots, finished, wins, failures);
+            workers.add(w);
+            pool.execute(w);
+        }
+        connected.await();
+        long playing = System.nanoTime();
+        if (local != null) {
+            System.out.printf("%d connections up in %.2fs, server holds %d%n",
+                    connections, (playing - start) / 1e9, local.getStats().connections());
+        } else {
+            System.out.printf("%d connections up in %.2fs%n", connections, (playing - start) / 1e9);
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - playing) / 1e9;
+
+        long[] latency = new long[BUCKETS];
+        for (Worker w : workers) {
+            for (int b = 0; b < BUCKETS; b++) latency[b] += w.latency[b];
+        }
+        System.out.printf("games %d (%.0f/s), player wins %d, shots %d (%.0f/s), failed connections %d%n",
+                finished.sum(), finished.sum() / seconds, wins.sum(), shots.sum(), shots.sum() / seconds, failures.sum());
+        System.out.printf("round trip p50 < %dus, p99 < %dus, p99.9 < %dus%n",
+                percentile(latency, 0.50), percentile(latency, 0.99), percentile(latency, 0.999));
+
+        if (local != null) local.close();
+    }
+
+    private static long percentile(long[] buckets, double p) {
+        long total = 0;
+        for (long n : buckets) total += n;
+        long rank = (long) Math.ceil(total * p), seen = 0;
+        for (int b = 0; b < buckets.length; b++) {
+            seen += buckets[b];
+            if (seen >= rank) return 1L << b;
+        }
+        return 1L << (buckets.length - 1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic load for the {@link Matchmaker}: producer threads push tickets
+ * with log-uniform money (so every bucket sees traffic), a share of them
+ * against a random CPU strategy and a few cancelled while waiting. Prints the
+ * queue and throughput once a second, then the wait-time summary.
+ *
+ * <pre>java -cp target/classes com.javamaster44.net.LobbyLoadTest [tickets] [producers] [cpuShare] [workers] [capacity] [ticketsPerSecond]</pre>
+ *
+ * With no rate (or 0) the producers go flat out, which measures how the lobby
+ * degrades past capacity; pace them below it to see steady-state wait times.
+ */
+public class LobbyLoadTest {
+    // Share of tickets withdrawn shortly after joining
+    private static final double CANCEL_SHARE = 0.01;
+    // Money runs from 1 to 2^17, which spreads tickets over the first ten buckets
+    private static final double MONEY_SPAN = 1 << 17;
+
+    public static void main(String[] args) throws Exception {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        double cpuShare = args.length > 2 ? Double.parseDouble(args[2]) : 0.3;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int capacity = args.length > 4 ? Integer.parseInt(args[4]) : workers * 64;
+        double rate = args.length > 5 ? Double.parseDouble(args[5]) : 0;
+        long gapNanos = rate > 0 ? (long) (producers * 1e9 / rate) : 0;
+
+        Matchmaker lobby = new Matchmaker(new SimulatedMatchRunner(GameVariant.fromSystemProperties(), StrategyType.HUNT_TARGET),
+                workers, capacity);
+        Matchmaker.Stats stats = lobby.getStats();
+        StrategyType[] strategies = StrategyType.values();
+        List<List<Ticket>> issued = new ArrayList<>();
+
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        SplittableRandom seeds = new SplittableRandom();
+        for (int p = 0; p < producers; p++) {
+            int share = tickets / producers + (p < tickets % producers ? 1 : 0);
+            SplittableRandom random = seeds.split();
+            List<Ticket> mine = new ArrayList<>(share);
+            issued.add(mine);
+            int producer = p;
+            pool.execute(() -> {
+                long next = System.nanoTime();
+                for (int i = 0; i < share; i++) {
+                    if (gapNanos > 0) {
+                        next += gapNanos;
+                        long sleep = next - System.nanoTime();
+                        if (sleep > 0) LockSupport.parkNanos(sleep);
+                    }
+                    int money = (int) Math.exp(random.nextDouble() * Math.log(MONEY_SPAN));
+                    StrategyType cpu = random.nextDouble() < cpuShare ? strategies[random.nextInt(strategies.length)] : null;
+                    Ticket t = lobby.enqueue(new Ticket("p" + producer + "-" + i, money, cpu));
+                    mine.add(t);
+                    if (random.nextDouble() < CANCEL_SHARE) t.cancel();
+                    if (gapNanos == 0 && (i & 255) == 255) Thread.yield();
+                }
+            });
+        }
+        pool.shutdown();
+
+        long start = System.nanoTime();
+        long lastFinished = 0;
+        while (true) {
+            boolean producing = !pool.awaitTermination(1, TimeUnit.SECONDS);
+            if (!producing) Thread.sleep(1000);
+            long finished = stats.matchesFinished();
+            System.out.printf("waiting %d, running %d, matches %d (%d/s), wait p50 < %dus, p99 < %dus%n",
+                    stats.waiting(), stats.running(), finished, finished - lastFinished,
+                    stats.waitPercentileMicros(0.50), stats.waitPercentileMicros(0.99));
+            lastFinished = finished;
+            // An odd player out never gets a partner; stop once nothing else can happen
+            if (!producing && stats.running() == 0 && stats.waiting() <= 1) break;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lobby.close();
+
+        List<CompletableFuture<Ticket.Result>> results = new ArrayList<>();
+        for (List<Ticket> mine : issued) {
+            for (Ticket t : mine) results.add(t.result());
+        }
+        long won = 0, done = 0, cancelled = 0;
+        for (CompletableFuture<Ticket.Result> f : results) {
+            if (f.isCancelled() || f.isCompletedExceptionally()) {
+                cancelled++;
+            } else if (f.isDone()) {
+                done++;
+                if (f.join().won()) won++;
+            }
+        }
+
+        System.out.printf("%d tickets in %.2fs: %d played (%d won), %d cancelled, %d failures%n",
+                tickets, seconds, done, won, cancelled, stats.failures());
+        System.out.printf("matches %d (%.0f/s), wait mean %.2fms, max %.2fms, p50 < %dus, p99 < %dus, p99.9 < %dus%n",
+                stats.matchesFinished(), stats.matchesFinished() / seconds, stats.meanWaitMillis(), stats.maxWaitMillis(),
+                stats.waitPercentileMicros(0.50), stats.waitPercentileMicros(0.99), stats.waitPercentileMicros(0.999));
+    }
+}
@@ -0,0 +1,86 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.ShotStrategy;
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * One remote player against a server-side CPU, on a pair of ordinary
+ * {@link Board}s, fired at through {@link Board#fire} like {@code GameEngine}'s (no
+ * money, powerups or saves). Owned by a single connection thread and reused
+ * across its games, so nothing here is shared or locked.
+ */
+final class Match {
+    private final GameVariant variant;
+    private final RandomGenerator random;
+    private final Board playerBoard;
+    private final Board cpuBoard;
+    // Strategies are expensive to build on big variants, so keep one per type
+    private final Map<StrategyType, ShotStrategy> strategies = new EnumMap<>(StrategyType.class);
+    private ShotStrategy cpu;
+    private boolean playing;
+
+    Match(GameVariant variant, RandomGenerator random) {
+        this.variant = variant;
+        this.random = random;
+        this.playerBoard = new Board(variant, random);
+        this.cpuBoard = new Board(variant, random);
+    }
+
+    GameVariant variant() { return variant; }
+    boolean isPlaying() { return playing; }
+
+    void start(StrategyType strategy) {
+        cpu = strategies.computeIfAbsent(strategy, s -> s.create(variant, random));
+        cpu.reset();
+        playerBoard.reset();
+        cpuBoard.reset();
+        playerBoard.placeShipsRandomly();
+        cpuBoard.placeShipsRandomly();
+        playing = true;
+    }
+
+    /**
+     * Resolves the player's shot and, unless it was a repeat or won the game, the
+     * CPU's reply. Returns the {@link Protocol} outcome byte; the CPU's cell is
+     * written to {@code cpuCell[0]} (-1 if it didn't fire).
+     */
+    int playerTurn(int cell, int[] cpuCell) {
+        cpuCell[0] = -1;
+        int outcome = fire(cpuBoard, cell);
+        if (outcome == Protocol.REPEAT) return outcome;
+        if (cpuBoard.allShipsSunk()) {
+            playing = false;
+            return outcome | Protocol.GAME_OVER | Protocol.PLAYER_WON;
+        }
+
+        int target = cpu.nextShot();
+        if (target >= 0) {
+            int reply = fire(playerBoard, target);
+            Ship sunk = reply == Protocol.SUNK ? playerBoard.getShipAt(target) : null;
+            cpu.onShotResult(target, reply >= Protocol.HIT, sunk);
+            cpuCell[0] = target;
+            outcome |= reply << Protocol.CPU_SHIFT;
+            if (playerBoard.allShipsSunk()) {
+                playing = false;
+                outcome |= Protocol.GAME_OVER;
+            }
+        }
+        return outcome;
+    }
+
+    private static int fire(Board board, int cell) {
+        return switch (board.fire(cell)) {
+            case REPEAT -> Protocol.REPEAT;
+            case MISS -> Protocol.MISS;
+            case HIT -> Protocol.HIT;
+            case SUNK -> Protocol.SUNK;
+        };
+    }
+}
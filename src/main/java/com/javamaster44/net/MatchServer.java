@@ -0,0 +1,227 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless server hosting player-vs-CPU matches over TCP (see {@link Protocol}).
+ * Every connection gets its own virtual thread, which blocks on the socket and
+ * owns a private {@link Match}; connections share nothing but the striped
+ * counters below, so there are no locks between matches and 10k+ idle or busy
+ * connections cost little more than their boards and socket buffers.
+ *
+ * <pre>java -cp target/classes com.javamaster44.net.MatchServer [port] [statsSeconds]</pre>
+ *
+ * The board and fleet come from {@link GameVariant#fromSystemProperties()};
+ * {@code battleship.idleTimeout} (seconds, default 120) drops silent clients.
+ * See {@link LoadTestClient} for a loopback load generator.
+ */
+public class MatchServer implements AutoCloseable {
+    // Frames are at most 6 bytes, so small buffers keep per-connection memory down
+    private static final int BUFFER_BYTES = 512;
+
+    public static final class Stats {
+        final AtomicInteger connections = new AtomicInteger();
+        final LongAdder accepted = new LongAdder();
+        final LongAdder gamesStarted = new LongAdder();
+        final LongAdder gamesFinished = new LongAdder();
+        final LongAdder shots = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        public int connections() { return connections.get(); }
+        public long accepted() { return accepted.sum(); }
+        public long gamesStarted() { return gamesStarted.sum(); }
+        public long gamesFinished() { return gamesFinished.sum(); }
+        public long shots() { return shots.sum(); }
+        public long errors() { return errors.sum(); }
+    }
+
+    private final ServerSocket socket;
+    private final GameVariant variant;
+    private final int idleTimeoutMillis;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Stats stats = new Stats();
+    // Only touched by the accept thread, which splits a private stream per match
+    private final SplittableRandom random = new SplittableRandom();
+    private volatile boolean closed;
+
+    public MatchServer(int port, GameVariant variant) throws IOException {
+        this.variant = variant;
+        this.idleTimeoutMillis = Integer.getInteger("battleship.idleTimeout", 120) * 1000;
+        this.socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        // A deep backlog so a burst of connects doesn't get refused
+        socket.bind(new InetSocketAddress(port), 16_384);
+    }
+
+    public int getPort() { return socket.getLocalPort(); }
+    public Stats getStats() { return stats; }
+
+    /** Accepts connections until {@link #close()}; blocks the calling thread. */
+    public void serve() throws IOException {
+        while (!closed) {
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (SocketException e) {
+                if (closed) return;
+                throw e;
+            } catch (IOException e) {
+                // Usually out of file descriptors; back off and let existing matches finish
+                stats.errors.increment();
+                System.err.println("Accept failed: " + e.getMessage());
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                continue;
+            }
+            stats.accepted.increment();
+            SplittableRandom matchRandom = random.split();
+            connections.execute(() -> handle(client, matchRandom));
+        }
+    }
+
+    /** Starts {@link #serve()} on a platform daemon thread. */
+    public Thread start() {
+        Thread t = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println("Match server stopped: " + e.getMessage());
+            }
+        }, "match-accept");
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        socket.close();
+        connections.shutdownNow();
+    }
+
+    private void handle(Socket client, SplittableRandom random) {
+        stats.connections.incrementAndGet();
+        try (client) {
+            client.setTcpNoDelay(true);
+            client.setSoTimeout(idleTimeoutMillis);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream(), BUFFER_BYTES));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream(), BUFFER_BYTES));
+            session(new Match(variant, random), in, out);
+        } catch (EOFException | SocketTimeoutException e) {
+            // Client vanished mid-frame or went quiet; just drop it
+        } catch (IOException e) {
+            if (!closed) stats.errors.increment();
+        } finally {
+            stats.connections.decrementAndGet();
+        }
+    }
+
+    private void session(Match match, DataInputStream in, DataOutputStream out) throws IOException {
+        StrategyType[] strategies = StrategyType.values();
+        int cells = variant.cells();
+        int[] cpuCell = new int[1];
+        while (true) {
+            int op = in.read();
+            switch (op) {
+                case -1, Protocol.QUIT -> {
+                    return;
+                }
+                case Protocol.NEW_GAME -> {
+                    int strategy = in.readUnsignedByte();
+                    if (strategy >= strategies.length) {
+                        error(out, Protocol.ERR_BAD_STRATEGY);
+                        continue;
+                    }
+                    match.start(strategies[strategy]);
+                    stats.gamesStarted.increment();
+                    out.writeByte(Protocol.STARTED);
+                    out.writeShort(variant.width());
+                    out.writeShort(variant.height());
+                }
+                case Protocol.SHOT -> {
+                    int cell = in.readInt();
+                    if (!match.isPlaying()) {
+                        error(out, Protocol.ERR_NO_GAME);
+                        continue;
+                    }
+                    if (cell < 0 || cell >= cells) {
+                        error(out, Protocol.ERR_BAD_CELL);
+                        continue;
+                    }
+                    int outcome = match.playerTurn(cell, cpuCell);
+                    stats.shots.increment();
+                    if ((outcome & Protocol.GAME_OVER) != 0) stats.gamesFinished.increment();
+                    out.writeByte(Protocol.RESULT);
+                    out.writeByte(outcome);
+                    out.writeInt(cpuCell[0]);
+                }
+                default -> {
+                    // Unknown opcode means we've lost framing; nothing after it can be trusted
+                    error(out, Protocol.ERR_BAD_OPCODE);
+                    return;
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private void error(DataOutputStream out, int code) throws IOException {
+        stats.errors.increment();
+        out.writeByte(Protocol.ERROR);
+        out.writeByte(code);
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7744;
+        int statsSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        GameVariant variant = GameVariant.fromSystemProperties();
+
+        MatchServer server = new MatchServer(port, variant);
+        System.out.printf("Serving %dx%d matches on port %d%n", variant.width(), variant.height(), server.getPort());
+
+        Thread reporter = new Thread(() -> {
+            long lastShots = 0, lastGames = 0;
+            while (true) {
+                try {
+                    Thread.sleep(statsSeconds * 1000L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Stats s = server.getStats();
+                long shots = s.shots(), games = s.gamesFinished();
+                System.out.printf("connections %d, games %d (%.0f/s), shots %d (%.0f/s), errors %d%n",
+                        s.connections(), games, (games - lastGames) / (double) statsSeconds,
+                        shots, (shots - lastShots) / (double) statsSeconds, s.errors());
+                lastShots = shots;
+                lastGames = games;
+            }
+        }, "match-stats");
+        reporter.setDaemon(true);
+        reporter.start();
+
+        server.serve();
+    }
+}
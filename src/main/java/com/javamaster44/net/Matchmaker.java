@@ -0,0 +1,286 @@
+package com.javamaster44.net;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pairs waiting {@link Ticket}s and runs their matches on a bounded pool.
+ * <p>
+ * Tickets are bucketed by saved money (a power-of-two scale, see
+ * {@link #bucketOf}). {@link #enqueue} only appends to a lock-free
+ * per-bucket inbox; a single matcher thread drains the inboxes every tick into
+ * deques it alone owns, pairs players FIFO within a bucket and lets anyone who
+ * has waited {@code k * widenAfter} reach {@code k} buckets either side.
+ * Player-vs-CPU tickets need no partner and start as soon as there is room.
+ * <p>
+ * At most {@code capacity} matches are running or queued on the
+ * {@code workers} threads at once. When that is used up the matcher stops
+ * pairing and tickets simply wait, so load beyond capacity shows up as queue
+ * wait time rather than unbounded memory.
+ */
+public class Matchmaker implements AutoCloseable {
+    /** Plays one match. {@code second} is null for player-vs-CPU tickets. */
+    public interface Runner {
+        Outcome play(Ticket first, Ticket second);
+    }
+
+    public record Outcome(boolean firstWon, int firstShots, int secondShots) {}
+
+    public static final int BUCKETS = 16;
+    // Money covered by bucket 1; each bucket above doubles it
+    private static final int BUCKET_MONEY = 500;
+    // Wait times are kept in log2 microsecond buckets
+    private static final int WAIT_BUCKETS = 40;
+
+    public static final class Stats {
+        final long startNanos = System.nanoTime();
+        final LongAdder enqueued = new LongAdder();
+        final LongAdder matched = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder matchesStarted = new LongAdder();
+        final LongAdder matchesFinished = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+        final AtomicLongArray waits = new AtomicLongArray(WAIT_BUCKETS);
+
+        /** Tickets enqueued but not yet matched or found cancelled. */
+        public long waiting() { return enqueued.sum() - matched.sum() - dropped.sum(); }
+        public long running() { return matchesStarted.sum() - matchesFinished.sum(); }
+        public long matchesStarted() { return matchesStarted.sum(); }
+        public long matchesFinished() { return matchesFinished.sum(); }
+        public long failures() { return failures.sum(); }
+        public double matchesPerSecond() { return matchesFinished.sum() / ((System.nanoTime() - startNanos) / 1e9); }
+        public double meanWaitMillis() { return waitNanos.sum() / 1e6 / Math.max(1, matched.sum()); }
+        public double maxWaitMillis() { return maxWaitNanos.get() / 1e6; }
+
+        /** Upper bound, in microseconds, of the wait time at quantile {@code p}. */
+        public long waitPercentileMicros(double p) {
+            long total = 0;
+            for (int b = 0; b < WAIT_BUCKETS; b++) total += waits.get(b);
+            long rank = (long) Math.ceil(total * p), seen = 0;
+            for (int b = 0; b < WAIT_BUCKETS; b++) {
+                seen += waits.get(b);
+                if (seen >= rank) return 1L << b;
+            }
+            return 1L << (WAIT_BUCKETS - 1);
+        }
+
+        void recordWait(long nanos) {
+            matched.increment();
+            waitNanos.add(nanos);
+            maxWaitNanos.accumulate(nanos);
+            waits.incrementAndGet(Math.min(WAIT_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos / 1000)));
+        }
+    }
+
+    private final Runner runner;
+    private final ExecutorService workers;
+    private final Semaphore slots;
+    private final long tickNanos;
+    private final long widenAfterNanos;
+    private final Stats stats = new Stats();
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<Ticket>[] inbox = new ConcurrentLinkedQueue[BUCKETS];
+    private final ConcurrentLinkedQueue<Ticket> cpuInbox = new ConcurrentLinkedQueue<>();
+    // Matcher thread only
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Ticket>[] waiting = new ArrayDeque[BUCKETS];
+
+    private final Thread matcher;
+    private volatile boolean closed;
+
+    public Matchmaker(Runner runner, int workerThreads, int capacity) {
+        this(runner, workerThreads, capacity, TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(2));
+    }
+
+    public Matchmaker(Runner runner, int workerThreads, int capacity, long tickNanos, long widenAfterNanos) {
+        this.runner = runner;
+        this.slots = new Semaphore(capacity);
+        this.tickNanos = tickNanos;
+        this.widenAfterNanos = widenAfterNanos;
+        for (int b = 0; b < BUCKETS; b++) {
+            inbox[b] = new ConcurrentLinkedQueue<>();
+            waiting[b] = new ArrayDeque<>();
+        }
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "match-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.matcher = new Thread(this::matchLoop, "matchmaker");
+        matcher.setDaemon(true);
+        matcher.start();
+    }
+
+    public Stats getStats() { return stats; }
+
+    public static int bucketOf(int money) {
+        int units = Math.max(0, money) / BUCKET_MONEY;
+        return Math.min(BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(units));
+    }
+
+    /** Queues a ticket; its {@link Ticket#result()} completes when the match ends. */
+    public Ticket enqueue(Ticket ticket) {
+        if (closed) throw new IllegalStateException("Matchmaker is closed");
+        ticket.enqueuedNanos = System.nanoTime();
+        stats.enqueued.increment();
+        if (ticket.wantsPlayer()) inbox[bucketOf(ticket.money())].offer(ticket);
+        else cpuInbox.offer(ticket);
+        return ticket;
+    }
+
+    private void matchLoop() {
+        while (!closed) {
+            matchOnce();
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    private void matchOnce() {
+        // CPU matches first: they never wait on anyone else, only on capacity
+        for (Ticket t; (t = cpuInbox.peek()) != null; ) {
+            if (!t.isWaiting()) {
+                cpuInbox.poll();
+                stats.dropped.increment();
+                continue;
+            }
+            if (!slots.tryAcquire()) return;
+            cpuInbox.poll();
+            if (t.take()) {
+                start(t, null);
+            } else {
+                slots.release();
+                stats.dropped.increment();
+            }
+        }
+
+        for (int b = 0; b < BUCKETS; b++) {
+            for (Ticket t; (t = inbox[b].poll()) != null; ) waiting[b].addLast(t);
+            if (!pairWithin(waiting[b])) return;
+        }
+
+        // Each bucket now holds at most one ticket; let long waiters look further afield
+        long now = System.nanoTime();
+        for (int b = 0; b < BUCKETS; b++) {
+            Ticket a = head(waiting[b]);
+            if (a == null) continue;
+            long reach = Math.min(BUCKETS, (now - a.enqueuedNanos) / widenAfterNanos);
+            for (int d = 1; d <= reach; d++) {
+                int other = pickNeighbour(b, d);
+                if (other < 0) continue;
+                if (!slots.tryAcquire()) return;
+                Ticket c = waiting[other].pollFirst();
+                waiting[b].pollFirst();
+                if (!pair(a, c, waiting[b], waiting[other])) slots.release();
+                break;
+            }
+        }
+    }
+
+    // Pairs tickets two at a time from one bucket; false if capacity ran out
+    private boolean pairWithin(ArrayDeque<Ticket> q) {
+        while (true) {
+            Ticket a = head(q);
+            if (a == null) return true;
+            q.pollFirst();
+            Ticket c = head(q);
+            if (c == null) {
+                q.addFirst(a);
+                return true;
+            }
+            if (!slots.tryAcquire()) {
+                q.addFirst(a);
+                return false;
+            }
+            q.pollFirst();
+            if (!pair(a, c, q, q)) slots.release();
+        }
+    }
+
+    // Claims both tickets and starts their match, putting back whichever is still live on failure
+    private boolean pair(Ticket a, Ticket c, ArrayDeque<Ticket> aHome, ArrayDeque<Ticket> cHome) {
+        if (!a.claim()) {
+            stats.dropped.increment();
+            cHome.addFirst(c);
+            return false;
+        }
+        if (!c.claim()) {
+            stats.dropped.increment();
+            a.unclaim();
+            aHome.addFirst(a);
+            return false;
+        }
+        a.confirm();
+        c.confirm();
+        start(a, c);
+        return true;
+    }
+
+    private int pickNeighbour(int b, int d) {
+        if (b - d >= 0 && head(waiting[b - d]) != null) return b - d;
+        if (b + d < BUCKETS && head(waiting[b + d]) != null) return b + d;
+        return -1;
+    }
+
+    // First live ticket in the deque, dropping cancelled ones off the front
+    private Ticket head(ArrayDeque<Ticket> q) {
+        Ticket t;
+        while ((t = q.peekFirst()) != null && !t.isWaiting()) {
+            q.pollFirst();
+            stats.dropped.increment();
+        }
+        return t;
+    }
+
+    private void start(Ticket first, Ticket second) {
+        long now = System.nanoTime();
+        stats.recordWait(now - first.enqueuedNanos);
+        if (second != null) stats.recordWait(now - second.enqueuedNanos);
+        stats.matchesStarted.increment();
+        workers.execute(() -> {
+            try {
+                Outcome o = runner.play(first, second);
+                first.result().complete(new Ticket.Result(o.firstWon(), o.firstShots(), second));
+                if (second != null) second.result().complete(new Ticket.Result(!o.firstWon(), o.secondShots(), first));
+            } catch (RuntimeException e) {
+                stats.failures.increment();
+                first.result().completeExceptionally(e);
+                if (second != null) second.result().completeExceptionally(e);
+            } finally {
+                stats.matchesFinished.increment();
+                slots.release();
+            }
+        });
+    }
+
+    /** Stops matching, cancels every ticket still waiting and lets running matches finish. */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(matcher);
+        matcher.join();
+        CancellationException cancelled = new CancellationException("Matchmaker closed");
+        for (int b = 0; b < BUCKETS; b++) {
+            for (Ticket t; (t = inbox[b].poll()) != null; ) waiting[b].addLast(t);
+            for (Ticket t : waiting[b]) {
+                if (t.take()) t.result().completeExceptionally(cancelled);
+            }
+        }
+        for (Ticket t; (t = cpuInbox.poll()) != null; ) {
+            if (t.take()) t.result().completeExceptionally(cancelled);
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
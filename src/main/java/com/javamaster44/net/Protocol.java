@@ -0,0 +1,50 @@
+package com.javamaster44.net;
+
+/**
+ * Wire format for the match server. Every frame is one opcode byte followed by a
+ * fixed-size body, so neither side ever buffers a partial frame or allocates
+ * per message. Multi-byte fields are big-endian ({@link java.io.DataOutput}).
+ *
+ * <pre>
+ * client -> server
+ *   NEW_GAME  0x01  u8 cpu strategy (StrategyType ordinal)     2 bytes
+ *   SHOT      0x02  i32 cell (row * width + col)               5 bytes
+ *   QUIT      0x03                                             1 byte
+ * server -> client
+ *   STARTED   0x81  u16 width, u16 height                      5 bytes
+ *   RESULT    0x82  u8 outcome, i32 cpu cell (-1 = none)       6 bytes
+ *   ERROR     0xFF  u8 error code                              2 bytes
+ * </pre>
+ *
+ * The RESULT outcome byte packs the player's shot in bits 0-1, the CPU's reply
+ * shot in bits 2-3 (both {@code MISS}/{@code HIT}/{@code SUNK}, 0 = no shot),
+ * then {@link #GAME_OVER} and {@link #PLAYER_WON}. A repeated cell comes back as
+ * {@link #REPEAT} with no CPU turn taken.
+ */
+final class Protocol {
+    static final int NEW_GAME = 0x01;
+    static final int SHOT = 0x02;
+    static final int QUIT = 0x03;
+
+    static final int STARTED = 0x81;
+    static final int RESULT = 0x82;
+    static final int ERROR = 0xFF;
+
+    static final int REPEAT = 0;
+    static final int MISS = 1;
+    static final int HIT = 2;
+    static final int SUNK = 3;
+    static final int CPU_SHIFT = 2;
+    static final int GAME_OVER = 0x10;
+    static final int PLAYER_WON = 0x20;
+
+    static final int ERR_BAD_OPCODE = 1;
+    static final int ERR_BAD_STRATEGY = 2;
+    static final int ERR_NO_GAME = 3;
+    static final int ERR_BAD_CELL = 4;
+
+    static int playerOutcome(int outcome) { return outcome & 3; }
+    static int cpuOutcome(int outcome) { return outcome >>> CPU_SHIFT & 3; }
+
+    private Protocol() {}
+}
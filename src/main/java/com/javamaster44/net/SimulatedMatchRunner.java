@@ -0,0 +1,36 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.sim.SimulatedGame;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Plays lobby matches headlessly: every human side is played by the
+ * {@code standIn} strategy and CPU opponents use the ticket's strategy. Every
+ * worker thread keeps its own {@link SimulatedGame}s, so matches share nothing.
+ */
+public class SimulatedMatchRunner implements Matchmaker.Runner {
+    private final GameVariant variant;
+    private final StrategyType standIn;
+    private final ThreadLocal<Map<StrategyType, SimulatedGame>> games = ThreadLocal.withInitial(() -> new EnumMap<>(StrategyType.class));
+
+    public SimulatedMatchRunner(GameVariant variant, StrategyType standIn) {
+        this.variant = variant;
+        this.standIn = standIn;
+    }
+
+    @Override
+    public Matchmaker.Outcome play(Ticket first, Ticket second) {
+        StrategyType opponent = second == null ? first.opponent() : standIn;
+        SimulatedGame game = games.get().computeIfAbsent(opponent,
+                s -> new SimulatedGame(variant, new SplittableRandom(), standIn, s));
+        SimulatedGame.Result r = game.play();
+        // The CPU side fires after every player shot except a winning one
+        int opponentShots = r.playerWon() ? r.playerShots() - 1 : r.playerShots();
+        return new Matchmaker.Outcome(r.playerWon(), r.playerShots(), opponentShots);
+    }
+}
@@ -0,0 +1,67 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.SaveManager;
+import com.javamaster44.logic.StrategyType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A player waiting in the {@link Matchmaker}. {@code opponent} is the CPU
+ * strategy to play against, or null to be paired with another waiting player.
+ * The result future completes when the match ends (or exceptionally if the
+ * ticket is cancelled or the match fails).
+ */
+public final class Ticket {
+    public record Result(boolean won, int shots, Ticket opponent) {}
+
+    private static final int WAITING = 0, CLAIMED = 1, MATCHED = 2, CANCELLED = 3;
+
+    private final String playerId;
+    private final int money;
+    private final StrategyType opponent;
+    private final CompletableFuture<Result> result = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    long enqueuedNanos;
+
+    public Ticket(String playerId, int money, StrategyType opponent) {
+        this.playerId = playerId;
+        this.money = money;
+        this.opponent = opponent;
+    }
+
+    /** Queues the player at the skill level their saved money puts them on. */
+    public static Ticket of(String playerId, SaveManager.SaveData data, StrategyType opponent) {
+        return new Ticket(playerId, data.money, opponent);
+    }
+
+    public String playerId() { return playerId; }
+    public int money() { return money; }
+    public StrategyType opponent() { return opponent; }
+    public boolean wantsPlayer() { return opponent == null; }
+    public CompletableFuture<Result> result() { return result; }
+
+    /**
+     * Withdraws the ticket if it hasn't been matched yet. Waits out the matcher's
+     * brief claim while it tries the other half of a pair, so false always means
+     * a match (or shutdown) has the ticket for good.
+     */
+    public boolean cancel() {
+        while (true) {
+            int s = state.get();
+            if (s == WAITING && state.compareAndSet(WAITING, CANCELLED)) break;
+            if (s != WAITING && s != CLAIMED) return false;
+            Thread.onSpinWait();
+        }
+        result.cancel(false);
+        return true;
+    }
+
+    boolean isWaiting() { return state.get() == WAITING; }
+    /** Takes the ticket for good, for a match that needs no second ticket. */
+    boolean take() { return state.compareAndSet(WAITING, MATCHED); }
+    // A pair claims both tickets first, then confirms both or hands its claim back; cancel() waits on either
+    boolean claim() { return state.compareAndSet(WAITING, CLAIMED); }
+    void confirm() { state.set(MATCHED); }
+    void unclaim() { state.set(WAITING); }
+}
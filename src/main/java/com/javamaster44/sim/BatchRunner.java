@@ -0,0 +1,79 @@
+package com.javamaster44.sim;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a batch of headless CPU-vs-CPU games on every core and prints the
+ * throughput and economy totals. No JavaFX required:
+ *
+ * <pre>java -cp target/classes com.javamaster44.sim.BatchRunner [games] [threads]</pre>
+ *
+ * The board and fleet come from {@link GameVariant#fromSystemProperties()}.
+ */
+public class BatchRunner {
+
+    public record Totals(long games, long playerWins, long playerShots, long moneyDelta) {
+        Totals plus(Totals o) {
+            return new Totals(games + o.games, playerWins + o.playerWins,
+                    playerShots + o.playerShots, moneyDelta + o.moneyDelta);
+        }
+    }
+
+    public static Totals run(int games, int threads, long seed) throws Exception {
+        return run(games, threads, seed, GameVariant.STANDARD);
+    }
+
+    public static Totals run(int games, int threads, long seed, GameVariant variant) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Totals>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int share = games / threads + (t < games % threads ? 1 : 0);
+                long workerSeed = seed + t;
+                parts.add(pool.submit(() -> playShare(share, variant, new Random(workerSeed))));
+            }
+            Totals totals = new Totals(0, 0, 0, 0);
+            for (Future<Totals> part : parts) {
+                totals = totals.plus(part.get());
+            }
+            return totals;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Totals playShare(int games, GameVariant variant, Random random) {
+        SimulatedGame game = new SimulatedGame(variant, random, StrategyType.HUNT_TARGET, StrategyType.HUNT_TARGET);
+        long wins = 0, shots = 0, money = 0;
+        for (int i = 0; i < games; i++) {
+            SimulatedGame.Result result = game.play();
+            if (result.playerWon()) wins++;
+            shots += result.playerShots();
+            money += result.moneyDelta();
+        }
+        return new Totals(games, wins, shots, money);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        Totals totals = run(games, threads, System.nanoTime(), GameVariant.fromSystemProperties());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games on %d threads in %.2fs (%.0f games/s)%n",
+                totals.games(), threads, seconds, totals.games() / seconds);
+        System.out.printf("Player win rate: %.2f%%%n", 100.0 * totals.playerWins() / totals.games());
+        System.out.printf("Mean player shots: %.2f%n", (double) totals.playerShots() / totals.games());
+        System.out.printf("Mean money delta: %.2f%n", (double) totals.moneyDelta() / totals.games());
+    }
+}
@@ -0,0 +1,82 @@
+package com.javamaster44.sim;
+
+import com.javamaster44.logic.HuntTargetStrategy;
+import com.javamaster44.logic.OpeningBook;
+import com.javamaster44.logic.OpeningBookStrategy;
+import com.javamaster44.logic.ShotStrategy;
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.ShotResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Learns the {@link OpeningBook} for a variant, writes it where the game looks
+ * for it, and compares the CPU with and without it on fresh random fleets.
+ *
+ * <pre>java -cp target/classes com.javamaster44.sim.BookBuilder [samples] [openingLength] [games] [seed] [file]</pre>
+ *
+ * The board and fleet come from {@link GameVariant#fromSystemProperties()}. To
+ * refresh the book bundled for the standard game, point {@code file} at
+ * {@code src/main/resources/com/javamaster44/logic/standard.book}.
+ */
+public class BookBuilder {
+    public static void main(String[] args) throws IOException {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : OpeningBook.DEFAULT_SAMPLES;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : OpeningBook.DEFAULT_OPENING;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        GameVariant variant = GameVariant.fromSystemProperties();
+        Path file = args.length > 4 ? Path.of(args[4]) : OpeningBook.file(variant);
+
+        long start = System.nanoTime();
+        OpeningBook book = OpeningBook.learn(variant, samples, length, seed);
+        System.out.printf("Learned %d-shot opening from %,d fleets in %d ms%n",
+                book.length(), samples, (System.nanoTime() - start) / 1_000_000);
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        book.write(file);
+        System.out.println("Wrote " + file);
+
+        // Evaluate on fleets the book never saw
+        CompletableFuture<OpeningBook> loaded = CompletableFuture.completedFuture(OpeningBook.open(file));
+        long evalSeed = seed ^ 0x9E3779B97F4A7C15L;
+        System.out.printf("%-14s %16s %16s%n", "strategy", "shots to 1st hit", "shots to win");
+        report("HUNT_TARGET", variant, games, evalSeed, r -> new HuntTargetStrategy(variant, r));
+        report("OPENING_BOOK", variant, games, evalSeed,
+                r -> new OpeningBookStrategy(variant, new HuntTargetStrategy(variant, r), loaded));
+        report("DENSITY", variant, games, evalSeed, r -> StrategyType.DENSITY.create(variant, r));
+    }
+
+    private interface Factory {
+        ShotStrategy create(SplittableRandom random);
+    }
+
+    private static void report(String name, GameVariant variant, int games, long seed, Factory factory) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ShotStrategy strategy = factory.create(random.split());
+        long firstHit = 0, toWin = 0;
+        for (int g = 0; g < games; g++) {
+            Board board = new Board(variant, random);
+            board.placeShipsRandomly();
+            strategy.reset();
+            int shots = 0, first = 0;
+            while (!board.allShipsSunk()) {
+                int cell = strategy.nextShot();
+                if (cell < 0) break;
+                shots++;
+                ShotResult result = board.fire(cell);
+                if (result.isHit() && first == 0) first = shots;
+                strategy.onShotResult(cell, result.isHit(), result == ShotResult.SUNK ? board.getShipAt(cell) : null);
+            }
+            firstHit += first;
+            toWin += shots;
+        }
+        System.out.printf("%-14s %16.2f %16.2f%n", name, (double) firstHit / games, (double) toWin / games);
+    }
+}
@@ -0,0 +1,84 @@
+package com.javamaster44.sim;
+
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.GameListener;
+import com.javamaster44.logic.Inventory;
+import com.javamaster44.logic.ShotStrategy;
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays complete CPU-vs-CPU games on a single {@link GameEngine}. The "player"
+ * side is driven by its own {@link ShotStrategy}. Not thread safe; use one
+ * instance per worker thread and reuse it across games.
+ */
+public class SimulatedGame implements GameListener {
+    public record Result(boolean playerWon, int playerShots, int moneyDelta, int sinkRewards, int sinkPenalties) {}
+
+    private final GameEngine engine;
+    private final ShotStrategy playerAI;
+    private boolean gameOver;
+    private boolean playerWon;
+    private int sinkRewards;
+    private int sinkPenalties;
+
+    public SimulatedGame(RandomGenerator random) {
+        this(random, StrategyType.HUNT_TARGET, StrategyType.HUNT_TARGET);
+    }
+
+    public SimulatedGame(RandomGenerator random, StrategyType player, StrategyType cpu) {
+        this(GameVariant.STANDARD, random, player, cpu);
+    }
+
+    public SimulatedGame(GameVariant variant, RandomGenerator random, StrategyType player, StrategyType cpu) {
+        this.engine = new GameEngine(variant, 0, new Inventory(), random);
+        this.playerAI = player.create(variant, random);
+        engine.setCpuStrategy(cpu.create(variant, random));
+        engine.setListener(this);
+    }
+
+    public Result play() {
+        engine.startAutoGame();
+        playerAI.reset();
+        gameOver = false;
+        sinkRewards = 0;
+        sinkPenalties = 0;
+        int startMoney = engine.getPlayerMoney();
+        int shots = 0;
+
+        while (!gameOver) {
+            int cell = playerAI.nextShot();
+            if (cell < 0) break;
+            Board cpuBoard = engine.getCpuBoard();
+
+            boolean hit = cpuBoard.getStatus(cell) == 3;
+            int width = cpuBoard.getWidth();
+            engine.handlePlayerShot((char) ('A' + cell / width), cell % width, null);
+            shots++;
+            Ship s = hit ? cpuBoard.getShipAt(cell) : null;
+            playerAI.onShotResult(cell, hit, s != null && s.isSunk() ? s : null);
+        }
+        return new Result(playerWon, shots, engine.getPlayerMoney() - startMoney, sinkRewards, sinkPenalties);
+    }
+
+    public GameEngine getEngine() { return engine; }
+
+    @Override
+    public void onSink(Ship ship, boolean isPlayerShooter, int moneyDelta) {
+        if (isPlayerShooter) {
+            sinkRewards += moneyDelta;
+        } else {
+            sinkPenalties -= moneyDelta;
+        }
+    }
+
+    @Override
+    public void onGameOver(boolean playerWon, int moneyDelta) {
+        this.gameOver = true;
+        this.playerWon = playerWon;
+    }
+}
@@ -0,0 +1,133 @@
+package com.javamaster44.sim;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monte Carlo tournament: shards M CPU-vs-CPU games over a {@link ForkJoinPool}.
+ * Every leaf task owns its {@link SimulatedGame} (and so its own pair of boards)
+ * and a {@link SplittableRandom} split off its parent, so workers share nothing
+ * but the striped {@link LongAdder} totals they add to once per shard.
+ *
+ * <pre>java -cp target/classes com.javamaster44.sim.TournamentRunner [games] [seed] [playerStrategy] [cpuStrategy]</pre>
+ *
+ * Runs the tournament at 1, 2, 4 ... N cores and prints games/s for each. The
+ * board and fleet come from {@link GameVariant#fromSystemProperties()}.
+ */
+public class TournamentRunner {
+    // Games per leaf task; large enough that fork overhead is noise
+    private static final int SHARD_SIZE = 512;
+
+    public static final class Stats {
+        final LongAdder games = new LongAdder();
+        final LongAdder playerWins = new LongAdder();
+        final LongAdder shotsInWins = new LongAdder();
+        final LongAdder moneyDelta = new LongAdder();
+        final LongAdder sinkRewards = new LongAdder();
+        final LongAdder sinkPenalties = new LongAdder();
+
+        public long games() { return games.sum(); }
+        public double winRate() { return (double) playerWins.sum() / Math.max(1, games.sum()); }
+        public double meanShotsToWin() { return (double) shotsInWins.sum() / Math.max(1, playerWins.sum()); }
+        public double meanMoneyDelta() { return (double) moneyDelta.sum() / Math.max(1, games.sum()); }
+        public double meanSinkRewards() { return (double) sinkRewards.sum() / Math.max(1, games.sum()); }
+        public double meanSinkPenalties() { return (double) sinkPenalties.sum() / Math.max(1, games.sum()); }
+    }
+
+    private static final class Shard extends RecursiveAction {
+        private final int games;
+        private final SplittableRandom random;
+        private final Stats stats;
+        private final GameVariant variant;
+        private final StrategyType player, cpu;
+
+        Shard(int games, SplittableRandom random, Stats stats, GameVariant variant, StrategyType player, StrategyType cpu) {
+            this.games = games;
+            this.variant = variant;
+            this.random = random;
+            this.stats = stats;
+            this.player = player;
+            this.cpu = cpu;
+        }
+
+        @Override
+        protected void compute() {
+            if (games > SHARD_SIZE) {
+                int half = games / 2;
+                // Split before forking so each half gets an independent stream
+                Shard left = new Shard(half, random.split(), stats, variant, player, cpu);
+                Shard right = new Shard(games - half, random, stats, variant, player, cpu);
+                invokeAll(left, right);
+                return;
+            }
+
+            SimulatedGame game = new SimulatedGame(variant, random, player, cpu);
+            long wins = 0, shotsInWins = 0, money = 0, rewards = 0, penalties = 0;
+            for (int i = 0; i < games; i++) {
+                SimulatedGame.Result r = game.play();
+                if (r.playerWon()) {
+                    wins++;
+                    shotsInWins += r.playerShots();
+                }
+                money += r.moneyDelta();
+                rewards += r.sinkRewards();
+                penalties += r.sinkPenalties();
+            }
+            stats.games.add(games);
+            stats.playerWins.add(wins);
+            stats.shotsInWins.add(shotsInWins);
+            stats.moneyDelta.add(money);
+            stats.sinkRewards.add(rewards);
+            stats.sinkPenalties.add(penalties);
+        }
+    }
+
+    public static Stats run(int games, int parallelism, long seed) {
+        return run(games, parallelism, seed, GameVariant.STANDARD, StrategyType.HUNT_TARGET, StrategyType.HUNT_TARGET);
+    }
+
+    public static Stats run(int games, int parallelism, long seed, GameVariant variant, StrategyType player, StrategyType cpu) {
+        Stats stats = new Stats();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Shard(games, new SplittableRandom(seed), stats, variant, player, cpu));
+        } finally {
+            pool.shutdown();
+        }
+        return stats;
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        StrategyType player = args.length > 2 ? StrategyType.valueOf(args[2]) : StrategyType.HUNT_TARGET;
+        StrategyType cpu = args.length > 3 ? StrategyType.valueOf(args[3]) : StrategyType.HUNT_TARGET;
+        GameVariant variant = GameVariant.fromSystemProperties();
+        int maxCores = Runtime.getRuntime().availableProcessors();
+
+        // Warm up the JIT so the 1-core run isn't penalised
+        run(Math.min(games, 20_000), maxCores, seed, variant, player, cpu);
+
+        System.out.printf("%-6s %12s %14s %8s%n", "cores", "games/s", "games/s/core", "speedup");
+        double baseline = 0;
+        Stats last = null;
+        for (int cores = 1; ; cores = Math.min(cores * 2, maxCores)) {
+            long start = System.nanoTime();
+            last = run(games, cores, seed, variant, player, cpu);
+            double rate = last.games() / ((System.nanoTime() - start) / 1e9);
+            if (baseline == 0) baseline = rate;
+            System.out.printf("%-6d %12.0f %14.0f %7.2fx%n", cores, rate, rate / cores, rate / baseline);
+            if (cores == maxCores) break;
+        }
+
+        System.out.printf("Player win rate: %.2f%%%n", 100 * last.winRate());
+        System.out.printf("Mean shots to win: %.2f%n", last.meanShotsToWin());
+        System.out.printf("Mean money delta: %.2f (sink rewards %.2f, sink penalties %.2f)%n",
+                last.meanMoneyDelta(), last.meanSinkRewards(), last.meanSinkPenalties());
+    }
+}
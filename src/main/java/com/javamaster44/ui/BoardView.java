@@ -0,0 +1,24 @@
+package com.javamaster44.ui;
+
+import javafx.scene.Node;
+
+/**
+ * Draws one board. GameUI decides what each cell should look like and only
+ * calls {@link #show} for cells whose look changed.
+ */
+interface BoardView {
+    // Visual codes: 0 = water, 1 = miss, 2 = hit, 3 = ship, 4 = sunk
+    byte WATER = 0, MISS = 1, HIT = 2, SHIP = 3, SUNK = 4;
+
+    Node getNode();
+
+    void show(int cell, byte visual);
+
+    /** Whether clicks on this board are accepted. */
+    void setActive(boolean active);
+
+    /** Selects the renderer from {@code battleship.renderer} ("buttons" or "canvas"). */
+    static boolean useCanvas() {
+        return "canvas".equalsIgnoreCase(System.getProperty("battleship.renderer", "buttons"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.javamaster44.ui;
+
+import com.javamaster44.model.GameVariant;
+import javafx.css.PseudoClass;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+
+import java.util.function.IntConsumer;
+
+/** One JavaFX Button per cell in a GridPane, styled through board.css pseudo-classes. */
+class ButtonBoardView implements BoardView {
+    private static final PseudoClass[] CELL_STATES = {
+            null, // empty water: plain .cell
+            PseudoClass.getPseudoClass("miss"),
+            PseudoClass.getPseudoClass("hit"),
+            PseudoClass.getPseudoClass("ship"),
+            PseudoClass.getPseudoClass("sunk")
+    };
+
+    private final GridPane grid;
+    // Cell buttons by packed cell index
+    private final Button[] cells;
+    private final byte[] shown;
+
+    ButtonBoardView(GameVariant variant, IntConsumer onCellClicked) {
+        cells = new Button[variant.cells()];
+        shown = new byte[variant.cells()];
+        grid = new GridPane();
+        grid.setHgap(1);
+        grid.setVgap(1);
+        grid.setStyle("-fx-background-color: black; -fx-border-color: black;");
+
+        // Headers
+        for (int i = 0; i < variant.width(); i++) {
+            Label l = new Label(String.valueOf(i + 1));
+            l.setPrefSize(30, 30);
+            l.setAlignment(Pos.CENTER);
+            l.setStyle("-fx-text-fill: white;");
+            grid.add(l, i + 1, 0);
+        }
+        for (int i = 0; i < variant.height(); i++) {
+            Label r = new Label(GameVariant.rowLabel(i));
+            r.setPrefSize(30, 30);
+            r.setAlignment(Pos.CENTER);
+            r.setStyle("-fx-text-fill: white;");
+            grid.add(r, 0, i + 1);
+        }
+
+        // Cells
+        for (int row = 0; row < variant.height(); row++) {
+            for (int col = 0; col < variant.width(); col++) {
+                Button btn = new Button();
+                btn.setPrefSize(30, 30);
+                btn.getStyleClass().add("cell");
+                int cell = variant.cellIndex(row, col);
+                btn.setOnAction(e -> onCellClicked.accept(cell));
+
+                grid.add(btn, col + 1, row + 1);
+                cells[cell] = btn;
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return grid;
+    }
+
+    @Override
+    public void show(int cell, byte visual) {
+        byte previous = shown[cell];
+        Button btn = cells[cell];
+        if (CELL_STATES[previous] != null) btn.pseudoClassStateChanged(CELL_STATES[previous], false);
+        if (CELL_STATES[visual] != null) btn.pseudoClassStateChanged(CELL_STATES[visual], true);
+        shown[cell] = visual;
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        grid.setDisable(!active);
+    }
+}
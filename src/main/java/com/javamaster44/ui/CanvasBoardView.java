@@ -0,0 +1,97 @@
+package com.javamaster44.ui;
+
+import com.javamaster44.model.GameVariant;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Draws a whole board on a single Canvas. The canvas keeps its pixels between
+ * frames, so {@link #show} repaints just the one cell rectangle that changed.
+ * Clicks are hit-tested back to a cell index. Cell size shrinks with the board
+ * so large variants still fit on screen.
+ */
+class CanvasBoardView implements BoardView {
+    private static final double MAX_BOARD_PIXELS = 600;
+    private static final Color[] FILLS = {
+            Color.LIGHTBLUE, Color.BLUE, Color.RED, Color.GRAY, Color.BLACK
+    };
+
+    private final GameVariant variant;
+    private final Canvas canvas;
+    private final GraphicsContext g;
+    private final double cellSize;
+    // Header band for row/column labels; 0 when cells are too small to label
+    private final double margin;
+    private final double gap;
+    private boolean active = true;
+
+    CanvasBoardView(GameVariant variant, IntConsumer onCellClicked) {
+        this.variant = variant;
+        int longest = Math.max(variant.width(), variant.height());
+        cellSize = Math.max(1, Math.min(30, Math.floor(MAX_BOARD_PIXELS / longest)));
+        margin = cellSize >= 12 ? 30 : 0;
+        gap = cellSize >= 4 ? 1 : 0;
+        canvas = new Canvas(margin + variant.width() * cellSize, margin + variant.height() * cellSize);
+        g = canvas.getGraphicsContext2D();
+
+        drawBackground();
+        canvas.setOnMouseClicked(e -> {
+            if (!active) return;
+            int col = (int) Math.floor((e.getX() - margin) / cellSize);
+            int row = (int) Math.floor((e.getY() - margin) / cellSize);
+            if (row >= 0 && row < variant.height() && col >= 0 && col < variant.width()) {
+                onCellClicked.accept(variant.cellIndex(row, col));
+            }
+        });
+    }
+
+    private void drawBackground() {
+        g.setFill(Color.BLACK);
+        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (margin > 0) {
+            g.setFill(Color.WHITE);
+            g.setFont(Font.font(Math.min(12, cellSize * 0.5)));
+            g.setTextAlign(TextAlignment.CENTER);
+            g.setTextBaseline(VPos.CENTER);
+            for (int c = 0; c < variant.width(); c++) {
+                g.fillText(String.valueOf(c + 1), margin + (c + 0.5) * cellSize, margin / 2);
+            }
+            for (int r = 0; r < variant.height(); r++) {
+                g.fillText(GameVariant.rowLabel(r), margin / 2, margin + (r + 0.5) * cellSize);
+            }
+        }
+        g.setFill(FILLS[WATER]);
+        for (int r = 0; r < variant.height(); r++) {
+            for (int c = 0; c < variant.width(); c++) {
+                fillCell(r, c);
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return canvas;
+    }
+
+    @Override
+    public void show(int cell, byte visual) {
+        g.setFill(FILLS[visual]);
+        fillCell(cell / variant.width(), cell % variant.width());
+    }
+
+    private void fillCell(int row, int col) {
+        g.fillRect(margin + col * cellSize, margin + row * cellSize, cellSize - gap, cellSize - gap);
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,58 @@
+package com.javamaster44.ui;
+
+import com.javamaster44.model.CellListener;
+import com.javamaster44.model.CellMask;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects the cells of one board that changed since the last frame. Each cell
+ * is queued at most once however often it changes, so a burst of shots (or a
+ * Nuke) becomes a single batch of updates on the next pulse.
+ */
+final class DirtyCells implements CellListener {
+    private final CellMask marked;
+    private int[] queue = new int[64];
+    private int size;
+    private boolean all;
+
+    DirtyCells(int cells) {
+        marked = new CellMask(cells);
+    }
+
+    @Override
+    public synchronized void cellChanged(int cell) {
+        if (all || marked.get(cell)) return;
+        marked.set(cell);
+        if (size == queue.length) queue = Arrays.copyOf(queue, size * 2);
+        queue[size++] = cell;
+    }
+
+    @Override
+    public synchronized void boardReset() {
+        all = true;
+    }
+
+    synchronized boolean isEmpty() {
+        return !all && size == 0;
+    }
+
+    /**
+     * Hands every dirty cell to {@code each}, or calls {@code everything} once if the
+     * whole board needs redrawing, then starts a new batch. Returns the number of
+     * cells handed over, or -1 for the whole board.
+     */
+    synchronized int drain(IntConsumer each, Runnable everything) {
+        int drained = all ? -1 : size;
+        if (all) {
+            everything.run();
+        } else {
+            for (int i = 0; i < size; i++) each.accept(queue[i]);
+        }
+        for (int i = 0; i < size; i++) marked.clear(queue[i]);
+        size = 0;
+        all = false;
+        return drained;
+    }
+}
@@ -1,8 +1,20 @@
 package com.javamaster44.ui;
 
 import com.javamaster44.logic.GameController;
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.GameSnapshot;
+import com.javamaster44.logic.Inventory;
+import com.javamaster44.logic.Powerup;
+import com.javamaster44.logic.PowerupRegistry;
+import com.javamaster44.logic.PowerupType;
+import com.javamaster44.logic.Replay;
+import com.javamaster44.logic.ReplayPlayer;
+import com.javamaster44.metrics.Metrics;
+import com.javamaster44.metrics.UiPulseEvent;
 import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
 import com.javamaster44.model.Ship;
+import javafx.animation.AnimationTimer;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -10,17 +22,40 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
 
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 
 public class GameUI {
+    // Print per-frame update cost every few seconds when -Dbattleship.frameStats=true
+    private static final boolean FRAME_STATS = Boolean.getBoolean("battleship.frameStats");
+
     private final BorderPane root;
-    private final GridPane playerGrid;
-    private final GridPane cpuGrid;
+    private final GameVariant variant;
+    private final BoardView playerView;
+    private final BoardView cpuView;
+    // Visual code last applied to each cell, so unchanged cells are skipped
+    private final byte[] playerShown;
+    private final byte[] cpuShown;
+    private final DirtyCells playerDirty;
+    private final DirtyCells cpuDirty;
+    // Money, inventory or game state changed; picked up on the next pulse
+    private volatile boolean stateDirty = true;
+    private Inventory shownInventory;
+    private GameEngine.GameState shownState;
+    private long statsSince, statsFrames, statsNanos, statsMaxNanos;
     private final Label statusLabel;
     private final MenuButton powerupMenu;
     private GameController controller;
-    private String selectedPowerup = null;
+    private PowerupType selectedPowerup = null;
+    // Boards being drawn: the game's, or a replay's during playback
+    private Board shownPlayerBoard;
+    private Board shownCpuBoard;
+    private HBox topBar;
+    private ReplayBar replayBar;
 
     // Manual Setup Controls
     private ComboBox<String> shipSelector;
@@ -30,25 +65,54 @@ public class GameUI {
 
     public GameUI() {
         root = new BorderPane();
-        playerGrid = createGrid(false);
-        cpuGrid = createGrid(true);
+        variant = GameVariant.fromSystemProperties();
+        playerShown = new byte[variant.cells()];
+        cpuShown = new byte[variant.cells()];
+        playerDirty = new DirtyCells(variant.cells());
+        cpuDirty = new DirtyCells(variant.cells());
+        if (BoardView.useCanvas()) {
+            playerView = new CanvasBoardView(variant, this::onPlayerCellClicked);
+            cpuView = new CanvasBoardView(variant, this::onCpuCellClicked);
+        } else {
+            playerView = new ButtonBoardView(variant, this::onPlayerCellClicked);
+            cpuView = new ButtonBoardView(variant, this::onCpuCellClicked);
+        }
         statusLabel = new Label("Balance: $0");
         statusLabel.setFont(Font.font(24));
         powerupMenu = new MenuButton("Powerups");
 
         initializeLayout();
-        this.controller = new GameController(this);
-        // Start in a neutral state, wait for user to click New Game
-        setSetupMode(false);
-        setupBox.setVisible(false); // Hide setup entirely initially
-        this.controller.promptNewGame();
+        root.getStylesheets().add(GameUI.class.getResource("board.css").toExternalForm());
+        this.controller = new GameController(this, variant);
+        showBoards(controller.getPlayerBoard(), controller.getCpuBoard());
+
+        // One coalesced update per frame, only for what changed since the last one
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long start = System.nanoTime();
+                if (replayBar != null) replayBar.tick(now);
+                pulse();
+                if (FRAME_STATS) recordFrame(now, System.nanoTime() - start);
+            }
+        }.start();
+
+        if (controller.isResumedGame()) {
+            // Carry on with the match that was running when the game last closed
+            setSetupMode(controller.getGameState() == GameEngine.GameState.SETUP);
+        } else {
+            // Start in a neutral state, wait for user to click New Game
+            setSetupMode(false);
+            setupBox.setVisible(false); // Hide setup entirely initially
+            this.controller.promptNewGame();
+        }
     }
 
     public Parent getRoot() { return root; }
 
     private void initializeLayout() {
         // Top Bar
-        HBox topBar = new HBox(10);
+        topBar = new HBox(10);
         topBar.setPadding(new Insets(10));
         topBar.setAlignment(Pos.CENTER_LEFT);
 
@@ -58,9 +122,23 @@ public class GameUI {
         Button shopBtn = new Button("Shop");
         shopBtn.setOnAction(e -> showShop());
 
+        MenuButton replayMenu = new MenuButton("Replay");
+        MenuItem lastGame = new MenuItem("Last Game");
+        lastGame.setOnAction(e -> {
+            Replay replay = controller.getLastReplay();
+            if (replay == null || replay.turnCount() == 0) {
+                showError("No Replay", "Play a game first.");
+            } else {
+                startReplay(replay);
+            }
+        });
+        MenuItem openFile = new MenuItem("Open File...");
+        openFile.setOnAction(e -> openReplayFile());
+        replayMenu.getItems().addAll(lastGame, openFile);
+
         // Setup Controls
         shipSelector = new ComboBox<>();
-        GameController.SHIP_DEFS.forEach(s -> shipSelector.getItems().add(s.name()));
+        variant.fleet().forEach(s -> shipSelector.getItems().add(s.name()));
         shipSelector.getSelectionModel().selectFirst();
 
         orientationSelector = new ComboBox<>();
@@ -80,7 +158,7 @@ public class GameUI {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        topBar.getChildren().addAll(newGameBtn, shopBtn, powerupMenu, setupBox, spacer, statusLabel);
+        topBar.getChildren().addAll(newGameBtn, shopBtn, replayMenu, powerupMenu, setupBox, spacer, statusLabel);
         root.setTop(topBar);
 
         // Boards
@@ -88,8 +166,8 @@ public class GameUI {
         boards.setPadding(new Insets(20));
         boards.setAlignment(Pos.CENTER);
 
-        VBox pBox = new VBox(10, new Label("Player Board (You)"), playerGrid);
-        VBox cBox = new VBox(10, new Label("CPU Board"), cpuGrid);
+        VBox pBox = new VBox(10, new Label("Player Board (You)"), playerView.getNode());
+        VBox cBox = new VBox(10, new Label("CPU Board"), cpuView.getNode());
         pBox.setAlignment(Pos.CENTER);
         cBox.setAlignment(Pos.CENTER);
 
@@ -102,132 +180,180 @@ public class GameUI {
         setupBox.setManaged(isSetup);
         powerupMenu.setDisable(isSetup);
         // During setup, Player Grid is active for placement, CPU Grid is inactive
+        requestRefresh();
     }
 
-    private GridPane createGrid(boolean isCpu) {
-        GridPane grid = new GridPane();
-        grid.setHgap(1);
-        grid.setVgap(1);
-        grid.setStyle("-fx-background-color: black; -fx-border-color: black;");
-
-        // Headers
-        for (int i = 0; i < 10; i++) {
-            Label l = new Label(String.valueOf(i + 1));
-            l.setPrefSize(30, 30);
-            l.setAlignment(Pos.CENTER);
-            l.setStyle("-fx-text-fill: white;");
-            grid.add(l, i + 1, 0);
-
-            Label r = new Label(String.valueOf((char)('A' + i)));
-            r.setPrefSize(30, 30);
-            r.setAlignment(Pos.CENTER);
-            r.setStyle("-fx-text-fill: white;");
-            grid.add(r, 0, i + 1);
+    private void showBoards(Board player, Board cpu) {
+        if (shownPlayerBoard != null) {
+            shownPlayerBoard.setCellListener(null);
+            shownCpuBoard.setCellListener(null);
         }
+        shownPlayerBoard = player;
+        shownCpuBoard = cpu;
+        player.setCellListener(playerDirty);
+        cpu.setCellListener(cpuDirty);
+        playerDirty.boardReset();
+        cpuDirty.boardReset();
+    }
 
-        // Cells
-        for (char row = 'A'; row <= 'J'; row++) {
-            for (int col = 0; col < 10; col++) {
-                Button btn = new Button();
-                btn.setPrefSize(30, 30);
-                char r = row;
-                int c = col;
-
-                if (isCpu) {
-                    btn.setOnAction(e -> controller.handlePlayerShot(r, c, selectedPowerup));
-                } else {
-                    btn.setOnAction(e -> {
-                        if (controller.getGameState() == GameController.GameState.SETUP) {
-                            String ship = shipSelector.getValue();
-                            boolean horiz = "Horizontal".equals(orientationSelector.getValue());
-                            controller.handlePlayerSetupClick(r, c, ship, horiz);
-                        }
-                    });
-                }
+    private void startReplay(Replay replay) {
+        if (!replay.getVariant().equals(variant)) {
+            showError("Replay", "That replay was recorded on a different board or fleet.");
+            return;
+        }
+        ReplayPlayer player = new ReplayPlayer(replay);
+        replayBar = new ReplayBar(player, this::stopReplay);
+        root.setTop(replayBar);
+        playerView.setActive(false);
+        cpuView.setActive(false);
+        shownState = null;
+        showBoards(player.getPlayerBoard(), player.getCpuBoard());
+    }
 
-                grid.add(btn, col + 1, (row - 'A') + 1);
-            }
+    private void stopReplay() {
+        replayBar = null;
+        root.setTop(topBar);
+        showBoards(controller.getPlayerBoard(), controller.getCpuBoard());
+        requestRefresh();
+    }
+
+    private void openReplayFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Open Replay");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Battleship replays", "*.bsr"));
+        File file = chooser.showOpenDialog(root.getScene().getWindow());
+        if (file == null) return;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            startReplay(Replay.read(in));
+        } catch (IOException | IllegalArgumentException e) {
+            showError("Replay", "Could not read " + file.getName() + ": " + e.getMessage());
         }
-        return grid;
     }
 
-    public void refresh(Board pBoard, Board cBoard, int money, Map<String, Integer> inventory) {
-        statusLabel.setText("Balance: $" + money);
-
-        updateGrid(playerGrid, pBoard, false);
-        updateGrid(cpuGrid, cBoard, true);
-
-        powerupMenu.getItems().clear();
-        powerupMenu.setDisable(false);
-        for (String item : GameController.COSTS.keySet()) {
-            int count = inventory.getOrDefault(item, 0);
-            if (count > 0) {
-                MenuItem mi = new MenuItem(item + " (" + count + ")");
-                mi.setOnAction(e -> {
-                    selectedPowerup = item;
-                    powerupMenu.setText("Selected: " + item);
-                });
-                powerupMenu.getItems().add(mi);
+    private void onCpuCellClicked(int cell) {
+        if (replayBar != null) return;
+        controller.handlePlayerShot((char) ('A' + cell / variant.width()), cell % variant.width(), selectedPowerup);
+    }
+
+    private void onPlayerCellClicked(int cell) {
+        if (replayBar != null) return;
+        if (controller.getGameState() == GameEngine.GameState.SETUP) {
+            String ship = shipSelector.getValue();
+            boolean horiz = "Horizontal".equals(orientationSelector.getValue());
+            controller.handlePlayerSetupClick((char) ('A' + cell / variant.width()), cell % variant.width(), ship, horiz);
+        }
+    }
+
+    /** Marks money, inventory and game state for redraw on the next pulse. Safe from any thread. */
+    public void requestRefresh() {
+        stateDirty = true;
+    }
+
+    private void pulse() {
+        long t0 = Metrics.start();
+        UiPulseEvent event = new UiPulseEvent();
+        event.begin();
+        // The game's state waits while a replay has the screen
+        if (stateDirty && replayBar == null) {
+            stateDirty = false;
+            event.stateRefreshed = true;
+            long refresh = Metrics.start();
+            refreshState();
+            Metrics.UI_REFRESH.stop(refresh);
+        }
+        // Replays reveal the CPU fleet
+        boolean hideCpuShips = replayBar == null;
+        if (!playerDirty.isEmpty()) {
+            Board board = shownPlayerBoard;
+            event.playerCells = playerDirty.drain(cell -> updateCell(playerView, playerShown, board, cell, false),
+                    () -> updateAll(playerView, playerShown, board, false));
+        }
+        if (!cpuDirty.isEmpty()) {
+            Board board = shownCpuBoard;
+            event.cpuCells = cpuDirty.drain(cell -> updateCell(cpuView, cpuShown, board, cell, hideCpuShips),
+                    () -> updateAll(cpuView, cpuShown, board, hideCpuShips));
+        }
+        Metrics.UI_PULSE.stop(t0);
+        event.commit();
+    }
+
+    private void refreshState() {
+        // One snapshot, so money, state and inventory always agree with each other
+        GameSnapshot snap = controller.snapshot();
+        statusLabel.setText("Balance: $" + snap.money());
+
+        GameEngine.GameState state = snap.state();
+        if (state != shownState) {
+            shownState = state;
+            // Player Grid is active for placement during SETUP, CPU Grid while PLAYING
+            playerView.setActive(state == GameEngine.GameState.SETUP);
+            cpuView.setActive(state == GameEngine.GameState.PLAYING);
+        }
+
+        // Rebuild the powerup menu only when the counts actually changed
+        Inventory inventory = snap.inventory();
+        if (!inventory.equals(shownInventory)) {
+            shownInventory = inventory;
+            powerupMenu.getItems().clear();
+            for (Powerup powerup : PowerupRegistry.all()) {
+                PowerupType item = powerup.type();
+                int count = inventory.get(item);
+                if (count > 0) {
+                    MenuItem mi = new MenuItem(item.displayName() + " (" + count + ")");
+                    mi.setOnAction(e -> {
+                        selectedPowerup = item;
+                        powerupMenu.setText("Selected: " + item.displayName());
+                    });
+                    powerupMenu.getItems().add(mi);
+                }
             }
         }
         if (selectedPowerup == null) {
             powerupMenu.setText("Powerups");
         }
-        if (powerupMenu.getItems().isEmpty()) {
-            powerupMenu.setDisable(true);
-        }
+        powerupMenu.setDisable(powerupMenu.getItems().isEmpty() || setupBox.isVisible());
     }
 
-    private void updateGrid(GridPane grid, Board board, boolean hideShips) {
-        for (javafx.scene.Node node : grid.getChildren()) {
-            if (!(node instanceof Button)) continue;
-            Integer col = GridPane.getColumnIndex(node);
-            Integer row = GridPane.getRowIndex(node);
-            if (col == null || row == null || col == 0 || row == 0) continue;
+    private void updateAll(BoardView view, byte[] shown, Board board, boolean hideShips) {
+        for (int cell = 0; cell < shown.length; cell++) {
+            updateCell(view, shown, board, cell, hideShips);
+        }
+    }
 
-            char rChar = (char) ('A' + (row - 1));
-            int cInt = col - 1;
-            int status = board.getStatus(rChar, cInt);
-            Button btn = (Button) node;
+    private void updateCell(BoardView view, byte[] shown, Board board, int cell, boolean hideShips) {
+        Ship s = board.getShipAt(cell);
+        if (s != null && s.isSunk()) {
+            // The sinking shot only dirtied one cell; the whole ship turns black
+            for (int i = 0; i < s.getCellCount(); i++) {
+                applyVisual(view, shown, s.getCells()[i], BoardView.SUNK);
+            }
+            return;
+        }
+        applyVisual(view, shown, cell, visualState(board.getStatus(cell), hideShips));
+    }
 
-            String color = "lightgray"; // Default water
+    private static byte visualState(int status, boolean hideShips) {
+        // 0 = Empty, 1 = Miss, 2 = Hit, 3 = Ship (shown as water on the CPU board)
+        return (byte) (status == 3 && hideShips ? BoardView.WATER : status);
+    }
 
-            Ship s = board.getShipAt(rChar, cInt);
-            boolean isSunk = (s != null && s.isSunk());
+    private static void applyVisual(BoardView view, byte[] shown, int cell, byte visual) {
+        if (shown[cell] == visual) return;
+        view.show(cell, visual);
+        shown[cell] = visual;
+    }
 
-            if (isSunk) {
-                color = "black";
-            } else {
-                switch (status) {
-                    case 0: // Empty
-                        color = "lightblue";
-                        break;
-                    case 1: // Miss
-                        color = "blue";
-                        break;
-                    case 2: // Hit
-                        color = "red";
-                        break;
-                    case 3: // Ship
-                        if (!hideShips) color = "gray";
-                        else color = "lightblue";
-                        break;
-                }
-            }
-            btn.setStyle("-fx-background-color: " + color + "; -fx-border-color: darkgray;");
-
-            // Re-enable/disable buttons based on state
-            if (grid == playerGrid) {
-                // Enabled if SETUP, Disabled if PLAYING
-                boolean isSetup = (controller.getGameState() == GameController.GameState.SETUP);
-                btn.setDisable(!isSetup);
-                btn.setOpacity(1.0);
-            } else {
-                // CPU Grid
-                boolean isPlaying = (controller.getGameState() == GameController.GameState.PLAYING);
-                btn.setDisable(!isPlaying);
-                btn.setOpacity(1.0);
-            }
+    private void recordFrame(long now, long nanos) {
+        if (statsSince == 0) statsSince = now;
+        statsFrames++;
+        statsNanos += nanos;
+        statsMaxNanos = Math.max(statsMaxNanos, nanos);
+        if (now - statsSince >= 5_000_000_000L) {
+            System.out.printf("[%s] %d frames, update avg %.1f us, max %.1f us%n",
+                    BoardView.useCanvas() ? "canvas" : "buttons", statsFrames,
+                    statsNanos / 1e3 / statsFrames, statsMaxNanos / 1e3);
+            statsSince = now;
+            statsFrames = statsNanos = statsMaxNanos = 0;
         }
     }
 
@@ -254,15 +380,14 @@ public class GameUI {
         content.setVgap(10);
 
         int row = 0;
-        for (Map.Entry<String, Integer> entry : GameController.COSTS.entrySet()) {
-            String name = entry.getKey();
-            int cost = entry.getValue();
+        for (Powerup powerup : PowerupRegistry.all()) {
+            PowerupType item = powerup.type();
 
-            Label nameLbl = new Label(name);
-            Label costLbl = new Label("$" + cost);
+            Label nameLbl = new Label(item.displayName());
+            Label costLbl = new Label("$" + powerup.cost());
             Button buyBtn = new Button("Buy");
             buyBtn.setOnAction(e -> {
-                if (!controller.buyItem(name)) {
+                if (!controller.buyItem(item)) {
                     Alert err = new Alert(Alert.AlertType.ERROR, "Not enough money!");
                     err.show();
                 }
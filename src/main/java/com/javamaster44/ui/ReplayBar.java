@@ -0,0 +1,107 @@
+package com.javamaster44.ui;
+
+import com.javamaster44.logic.Replay;
+import com.javamaster44.logic.ReplayPlayer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+
+/**
+ * Playback controls for a {@link ReplayPlayer}: play/pause, speed (1x-100x), a
+ * scrub slider over the turns, and what happened on the current turn. Driven
+ * from GameUI's frame pulse via {@link #tick}; the boards redraw themselves
+ * through their cell listeners.
+ */
+final class ReplayBar extends HBox {
+    // Turns per second at 1x
+    private static final double BASE_RATE = 2;
+    private static final int[] SPEEDS = {1, 2, 5, 10, 25, 50, 100};
+
+    private final ReplayPlayer player;
+    private final Replay replay;
+    private final Button playButton = new Button("Play");
+    private final ComboBox<String> speedSelector = new ComboBox<>();
+    private final Slider slider;
+    private final Label info = new Label();
+    private boolean playing;
+    private boolean updatingSlider;
+    private double pendingTurns;
+    private long lastTick;
+
+    ReplayBar(ReplayPlayer player, Runnable onExit) {
+        super(10);
+        this.player = player;
+        this.replay = player.getReplay();
+        setPadding(new Insets(10));
+        setAlignment(Pos.CENTER_LEFT);
+
+        playButton.setOnAction(e -> setPlaying(!playing));
+        for (int speed : SPEEDS) speedSelector.getItems().add(speed + "x");
+        speedSelector.getSelectionModel().selectFirst();
+
+        slider = new Slider(0, replay.turnCount(), 0);
+        slider.setBlockIncrement(1);
+        slider.setMajorTickUnit(1);
+        slider.setMinorTickCount(0);
+        slider.setSnapToTicks(true);
+        HBox.setHgrow(slider, Priority.ALWAYS);
+        slider.valueProperty().addListener((obs, old, value) -> {
+            if (!updatingSlider) seek((int) Math.round(value.doubleValue()));
+        });
+
+        Button stepBack = new Button("<");
+        stepBack.setOnAction(e -> { setPlaying(false); seek(player.getPosition() - 1); });
+        Button stepForward = new Button(">");
+        stepForward.setOnAction(e -> { setPlaying(false); seek(player.getPosition() + 1); });
+        Button exit = new Button("Exit Replay");
+        exit.setOnAction(e -> onExit.run());
+
+        getChildren().addAll(exit, playButton, stepBack, stepForward, speedSelector, slider, info);
+        showPosition();
+    }
+
+    /** Advances playback by the time since the last frame. */
+    void tick(long now) {
+        if (!playing) {
+            lastTick = 0;
+            return;
+        }
+        if (lastTick != 0) {
+            int speed = SPEEDS[Math.max(0, speedSelector.getSelectionModel().getSelectedIndex())];
+            pendingTurns += (now - lastTick) / 1e9 * BASE_RATE * speed;
+        }
+        lastTick = now;
+        int turns = (int) pendingTurns;
+        if (turns > 0) {
+            pendingTurns -= turns;
+            seek(player.getPosition() + turns);
+            if (player.getPosition() == replay.turnCount()) setPlaying(false);
+        }
+    }
+
+    private void setPlaying(boolean play) {
+        if (play && player.getPosition() == replay.turnCount()) seek(0); // replay from the start
+        playing = play;
+        pendingTurns = 0;
+        playButton.setText(play ? "Pause" : "Play");
+    }
+
+    private void seek(int turns) {
+        player.seek(turns);
+        showPosition();
+    }
+
+    private void showPosition() {
+        int position = player.getPosition();
+        updatingSlider = true;
+        slider.setValue(position);
+        updatingSlider = false;
+        String last = position == 0 ? "Start" : replay.describe(position - 1);
+        info.setText("Turn " + position + "/" + replay.turnCount() + ": " + last + "  $" + replay.moneyAt(position));
+    }
+}
@@ -0,0 +1,67 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AreaOfEffectTest {
+    // 12 wide, 8 high, so rows and columns can't be mixed up
+    private static final GameVariant VARIANT = new GameVariant(12, 8, GameVariant.STANDARD.fleet());
+    private final AreaOfEffect area = new AreaOfEffect(VARIANT);
+
+    private static Set<Integer> distinct(List<Integer> cells) {
+        Set<Integer> set = new HashSet<>(cells);
+        assertEquals(cells.size(), set.size(), "repeated cells in " + cells);
+        for (int cell : cells) assertTrue(cell >= 0 && cell < VARIANT.cells(), "off the board: " + cell);
+        return set;
+    }
+
+    @Test
+    void rowsColumnsAndWholeBoard() {
+        List<Integer> cells = new ArrayList<>();
+        area.row(2, cells::add);
+        assertEquals(12, distinct(cells).size());
+        assertTrue(cells.stream().allMatch(c -> c / 12 == 2));
+
+        cells.clear();
+        area.column(11, cells::add);
+        assertEquals(8, distinct(cells).size());
+        assertTrue(cells.stream().allMatch(c -> c % 12 == 11));
+
+        cells.clear();
+        area.wholeBoard(cells::add);
+        assertEquals(96, distinct(cells).size());
+    }
+
+    @Test
+    void crossCoversItsCentreOnce() {
+        List<Integer> cells = new ArrayList<>();
+        area.cross(3, 4, cells::add);
+        Set<Integer> set = distinct(cells);
+        assertEquals(12 + 8 - 1, set.size());
+        for (int cell : set) assertTrue(cell / 12 == 3 || cell % 12 == 4);
+    }
+
+    @Test
+    void squareIsClippedToTheBoard() {
+        List<Integer> cells = new ArrayList<>();
+        area.square(4, 5, 2, cells::add);
+        assertEquals(25, distinct(cells).size());
+
+        cells.clear();
+        area.square(0, 0, 2, cells::add);
+        assertEquals(Set.of(0, 1, 2, 12, 13, 14, 24, 25, 26), distinct(cells));
+
+        cells.clear();
+        area.square(7, 11, 2, cells::add);
+        assertEquals(9, distinct(cells).size());
+        assertTrue(cells.contains(95));
+    }
+}
@@ -0,0 +1,137 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+import com.javamaster44.model.ShipDef;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEngineTest {
+    private static final int MONEY = 300;
+
+    // Adds up every money change the engine reports
+    private static final class Events implements GameListener {
+        final List<String> sunk = new ArrayList<>();
+        int moneyDelta;
+        Boolean playerWon;
+
+        @Override
+        public void onSink(Ship ship, boolean isPlayerShooter, int delta) {
+            sunk.add((isPlayerShooter ? "cpu " : "player ") + ship.getName());
+            moneyDelta += delta;
+        }
+
+        @Override
+        public void onGameOver(boolean won, int delta) {
+            playerWon = won;
+            moneyDelta += delta;
+        }
+    }
+
+    private static GameEngine engine(Events events) {
+        GameEngine engine = new GameEngine(GameVariant.STANDARD, MONEY, new Inventory(), new SplittableRandom(8));
+        engine.setListener(events);
+        return engine;
+    }
+
+    private static int shots(Board board) {
+        int[] n = {0};
+        board.forEachShot(cell -> n[0]++);
+        return n[0];
+    }
+
+    @Test
+    void setupNeedsTheWholeFleet() {
+        GameEngine engine = engine(new Events());
+        engine.resetGame();
+        assertEquals(GameEngine.GameState.SETUP, engine.getGameState());
+        assertEquals(5, engine.getCpuBoard().getShips().size());
+
+        List<ShipDef> fleet = GameVariant.STANDARD.fleet();
+        for (int i = 0; i < fleet.size(); i++) {
+            assertFalse(engine.finishSetup());
+            assertTrue(engine.placePlayerShip(fleet.get(i).name(), (char) ('A' + i), 0, true));
+        }
+        // Placing a ship again moves it
+        assertTrue(engine.placePlayerShip("Carrier", 'J', 0, true));
+        assertNull(engine.getPlayerBoard().getShipAt(0));
+        assertEquals("Carrier", engine.getPlayerBoard().getShipAt(90).getName());
+        assertFalse(engine.placePlayerShip("Carrier", 'J', 6, true));
+        assertFalse(engine.placePlayerShip("Dinghy", 'J', 0, true));
+        assertFalse(engine.finishSetup());
+
+        assertTrue(engine.placePlayerShip("Carrier", 'J', 0, true));
+        assertTrue(engine.finishSetup());
+        assertEquals(GameEngine.GameState.PLAYING, engine.getGameState());
+        assertFalse(engine.placePlayerShip("Carrier", 'F', 0, true));
+    }
+
+    @Test
+    void repeatShotGivesTheCpuNoTurn() {
+        GameEngine engine = engine(new Events());
+        engine.startAutoGame();
+        engine.handlePlayerShot('C', 4, null);
+        assertEquals(1, shots(engine.getCpuBoard()));
+        assertEquals(1, shots(engine.getPlayerBoard()));
+        engine.handlePlayerShot('C', 4, null);
+        assertEquals(1, shots(engine.getPlayerBoard()));
+    }
+
+    @Test
+    void sinkingTheFleetPaysOutAndEndsTheGame() {
+        Events events = new Events();
+        GameEngine engine = engine(events);
+        engine.startAutoGame();
+        Board cpu = engine.getCpuBoard();
+        for (Ship ship : cpu.getShips()) {
+            for (int cell : ship.getCells()) {
+                engine.handlePlayerShot((char) ('A' + cell / 10), cell % 10, null);
+            }
+        }
+        assertEquals(GameEngine.GameState.GAME_OVER, engine.getGameState());
+        assertTrue(events.playerWon);
+        assertTrue(cpu.allShipsSunk());
+        assertEquals(5, events.sunk.stream().filter(s -> s.startsWith("cpu ")).count());
+        assertEquals(MONEY + events.moneyDelta, engine.getPlayerMoney());
+        assertEquals(expectedDelta(engine, true), events.moneyDelta);
+
+        // Nothing moves once the game is over
+        int playerShots = shots(engine.getPlayerBoard());
+        engine.handlePlayerShot('J', 9, null);
+        assertEquals(playerShots, shots(engine.getPlayerBoard()));
+    }
+
+    @Test
+    void cpuSinksCostTheirPenalty() {
+        Events events = new Events();
+        GameEngine engine = engine(events);
+        engine.startAutoGame();
+        for (int cell = 0; engine.getGameState() == GameEngine.GameState.PLAYING && cell < 100; cell++) {
+            engine.handlePlayerShot((char) ('A' + cell / 10), cell % 10, null);
+        }
+        assertEquals(GameEngine.GameState.GAME_OVER, engine.getGameState());
+        assertEquals(MONEY + events.moneyDelta, engine.getPlayerMoney());
+        assertEquals(expectedDelta(engine, events.playerWon), events.moneyDelta);
+    }
+
+    // Rewards for CPU ships sunk, less a third of each player ship's, plus the bonus on a win
+    private static int expectedDelta(GameEngine engine, boolean won) {
+        int delta = won ? GameEngine.VICTORY_BONUS : 0;
+        for (Ship ship : engine.getCpuBoard().getShips()) {
+            if (ship.isSunk()) delta += ship.getReward();
+        }
+        for (Ship ship : engine.getPlayerBoard().getShips()) {
+            if (ship.isSunk()) delta -= ship.getReward() / 3;
+        }
+        return delta;
+    }
+}
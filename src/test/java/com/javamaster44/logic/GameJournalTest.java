@@ -0,0 +1,147 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameJournalTest {
+    private static final int MONEY = 300;
+
+    @TempDir
+    Path dir;
+
+    private GameEngine engine(GameVariant variant, long seed) {
+        return new GameEngine(variant, MONEY, new Inventory(), new SplittableRandom(seed));
+    }
+
+    private GameJournal journal() {
+        return new GameJournal(dir.resolve("game.journal"), dir.resolve("game.snap"));
+    }
+
+    // Starts a recorded game and plays the player's shots row by row from the first cell
+    private GameEngine play(GameVariant variant, int turns) {
+        GameEngine engine = engine(variant, 1);
+        GameJournal journal = journal();
+        assertFalse(journal.open(engine));
+        engine.setJournal(journal);
+        engine.startAutoGame();
+        engine.buyItem(PowerupType.BOMB);
+        for (int t = 0; t < turns && engine.getGameState() == GameEngine.GameState.PLAYING; t++) {
+            engine.handlePlayerShot((char) ('A' + t / variant.width()), t % variant.width(), null);
+        }
+        return engine;
+    }
+
+    private GameEngine resume(GameVariant variant) {
+        GameEngine engine = engine(variant, 2);
+        assertTrue(journal().open(engine));
+        return engine;
+    }
+
+    private static void assertSameGame(GameEngine expected, GameEngine actual) {
+        assertEquals(expected.getPlayerMoney(), actual.getPlayerMoney());
+        assertEquals(expected.getInventory(), actual.getInventory());
+        assertEquals(expected.getGameState(), actual.getGameState());
+        assertSameBoard(expected.getPlayerBoard(), actual.getPlayerBoard());
+        assertSameBoard(expected.getCpuBoard(), actual.getCpuBoard());
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        assertEquals(expected.getShips().size(), actual.getShips().size());
+        for (int cell = 0; cell < expected.getVariant().cells(); cell++) {
+            assertEquals(expected.getStatus(cell), actual.getStatus(cell), "cell " + cell);
+        }
+        assertEquals(expected.allShipsSunk(), actual.allShipsSunk());
+    }
+
+    @Test
+    void resumesTheGameInProgress() {
+        GameEngine played = play(GameVariant.STANDARD, 30);
+        assertSameGame(played, resume(GameVariant.STANDARD));
+    }
+
+    @Test
+    void resumesAfterCompactionOnABigBoard() throws Exception {
+        GameVariant variant = new GameVariant(60, 60, GameVariant.repeatedFleet(GameVariant.STANDARD.fleet(), 8));
+        GameEngine played = play(variant, 700);
+        assertEquals(GameEngine.GameState.PLAYING, played.getGameState());
+        // The interval snapshot is written in the background; the next commit after it lands cuts the journal
+        for (int t = 700; journalBaseSeq() == 0 && t < 1000; t++) {
+            Thread.sleep(5);
+            played.handlePlayerShot((char) ('A' + t / 60), t % 60, null);
+        }
+        assertTrue(journalBaseSeq() >= GameJournal.SNAPSHOT_INTERVAL);
+        assertSameGame(played, resume(variant));
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        GameEngine played = play(GameVariant.STANDARD, 10);
+        Path file = dir.resolve("game.journal");
+        long size = Files.size(file);
+        // Half a shot record, as if the process died mid-append
+        Files.write(file, new byte[]{3, 2}, StandardOpenOption.APPEND);
+
+        assertSameGame(played, resume(GameVariant.STANDARD));
+        assertEquals(size, Files.size(file));
+    }
+
+    @Test
+    void undecodableRecordStartsFresh() {
+        GameEngine engine = engine(GameVariant.STANDARD, 1);
+        GameJournal journal = journal();
+        journal.open(engine);
+        engine.setJournal(journal);
+        engine.resetGame();
+        // Passes its check but names a ship the fleet doesn't have
+        journal.placement(99, 0);
+        journal.commit(engine);
+
+        GameEngine fresh = engine(GameVariant.STANDARD, 2);
+        assertFalse(journal().open(fresh));
+        assertFresh(fresh);
+        assertFalse(Files.exists(dir.resolve("game.journal")));
+        assertFalse(Files.exists(dir.resolve("game.snap")));
+    }
+
+    @Test
+    void unreadableJournalStartsFresh() throws IOException {
+        play(GameVariant.STANDARD, 10);
+        Path file = dir.resolve("game.journal");
+        Files.delete(file);
+        Files.createDirectory(file);
+
+        GameEngine fresh = engine(GameVariant.STANDARD, 2);
+        assertFalse(journal().open(fresh));
+        assertFresh(fresh);
+    }
+
+    private static void assertFresh(GameEngine engine) {
+        assertEquals(GameEngine.GameState.SETUP, engine.getGameState());
+        assertEquals(MONEY, engine.getPlayerMoney());
+        assertEquals(new Inventory(), engine.getInventory());
+        assertTrue(engine.getPlayerBoard().getShips().isEmpty());
+        assertTrue(engine.getCpuBoard().getShips().isEmpty());
+    }
+
+    private long journalBaseSeq() throws IOException {
+        try (InputStream in = Files.newInputStream(dir.resolve("game.journal"))) {
+            DataInputStream data = new DataInputStream(in);
+            data.readInt();
+            return data.readLong();
+        }
+    }
+}
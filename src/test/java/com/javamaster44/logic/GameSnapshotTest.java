@@ -0,0 +1,88 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSnapshotTest {
+
+    private static GameEngine engine(int money) {
+        return new GameEngine(GameVariant.STANDARD, money, new Inventory(), new SplittableRandom(1));
+    }
+
+    @Test
+    void versionMovesOnlyWhenSomethingChanged() {
+        GameEngine engine = engine(20_000);
+        engine.resetGame();
+        GameSnapshot before = engine.snapshot();
+        engine.resetGame();
+        assertSame(before, engine.snapshot());
+
+        assertTrue(engine.buyItem(PowerupType.BOMB));
+        GameSnapshot after = engine.snapshot();
+        assertTrue(after.version() > before.version());
+        assertEquals(12_000, after.money());
+        assertEquals(1, after.count(PowerupType.BOMB));
+        assertEquals(20_000, before.money());
+        assertEquals(0, before.count(PowerupType.BOMB));
+    }
+
+    @Test
+    void snapshotsDoNotShareTheInventory() {
+        GameEngine engine = engine(20_000);
+        engine.buyItem(PowerupType.BOMB);
+        GameSnapshot snapshot = engine.snapshot();
+        snapshot.inventory().set(PowerupType.BOMB, 99);
+        assertEquals(1, snapshot.count(PowerupType.BOMB));
+        engine.getInventory().set(PowerupType.BOMB, 50);
+        assertEquals(1, snapshot.count(PowerupType.BOMB));
+    }
+
+    @Test
+    void stateAndSkipArePublishedTogether() {
+        Inventory inventory = new Inventory();
+        inventory.set(PowerupType.CONFUSION_RAY, 1);
+        GameEngine engine = new GameEngine(GameVariant.STANDARD, 0, inventory, new SplittableRandom(1));
+        engine.startAutoGame();
+        assertEquals(GameEngine.GameState.PLAYING, engine.snapshot().state());
+        assertFalse(engine.snapshot().skipCpuTurn());
+        engine.usePowerup(PowerupType.CONFUSION_RAY, 'A', 0);
+        assertTrue(engine.snapshot().skipCpuTurn());
+        assertEquals(0, engine.snapshot().count(PowerupType.CONFUSION_RAY));
+    }
+
+    @Test
+    void readersNeverSeeAVersionGoBack() throws InterruptedException {
+        GameEngine engine = engine(0);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> problem = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long last = 0;
+            while (!done.get()) {
+                GameSnapshot s = engine.snapshot();
+                if (s == null) continue;
+                if (s.version() < last) problem.set("version " + s.version() + " after " + last);
+                last = s.version();
+            }
+        });
+        reader.start();
+        for (int game = 0; game < 300; game++) {
+            engine.startAutoGame();
+            for (int cell = 0; cell < 100 && engine.getGameState() == GameEngine.GameState.PLAYING; cell++) {
+                engine.handlePlayerShot((char) ('A' + cell / 10), cell % 10, null);
+            }
+        }
+        done.set(true);
+        reader.join();
+        assertNull(problem.get());
+    }
+}
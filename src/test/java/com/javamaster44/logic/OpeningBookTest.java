@@ -0,0 +1,142 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.PlacementGenerator;
+import com.javamaster44.model.ShipDef;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpeningBookTest {
+    private static final GameVariant SMALL = new GameVariant(8, 8, GameVariant.STANDARD.fleet());
+
+    @TempDir
+    Path dir;
+
+    private static void assertSameBook(OpeningBook expected, OpeningBook actual) {
+        assertEquals(expected.samples(), actual.samples());
+        assertEquals(expected.length(), actual.length());
+        for (int i = 0; i < expected.length(); i++) assertEquals(expected.shot(i), actual.shot(i));
+    }
+
+    @Test
+    void bookRoundTrips() throws IOException {
+        OpeningBook book = OpeningBook.learn(SMALL, 2000, 30, 9);
+        assertEquals(2000, book.samples());
+        assertTrue(book.length() > 0 && book.length() <= 30);
+        Path file = dir.resolve("small.book");
+        book.write(file);
+        assertSameBook(book, OpeningBook.open(file));
+        assertSameBook(book, OpeningBook.learn(SMALL, 2000, 30, 9));
+    }
+
+    @Test
+    void openingHitsEverySampledFleet() {
+        int samples = 50;
+        OpeningBook book = OpeningBook.learn(SMALL, samples, 64, 3);
+        Set<Integer> shots = new HashSet<>();
+        for (int i = 0; i < book.length(); i++) assertTrue(shots.add(book.shot(i)), "repeated shot " + book.shot(i));
+
+        // Learning draws its fleets from the same seed
+        int[][] layouts = new PlacementGenerator(SMALL).sampleMany(samples, 3);
+        List<ShipDef> fleet = SMALL.fleet();
+        for (int[] layout : layouts) {
+            boolean hit = false;
+            for (int s = 0; s < layout.length && !hit; s++) {
+                int step = PlacementGenerator.isHorizontal(layout[s]) ? 1 : SMALL.width();
+                for (int i = 0, cell = PlacementGenerator.startCell(layout[s]); i < fleet.get(s).length(); i++, cell += step) {
+                    hit |= shots.contains(cell);
+                }
+            }
+            assertTrue(hit, "missed " + Arrays.toString(layout));
+        }
+    }
+
+    @Test
+    void bundledStandardBookOpens() throws IOException {
+        Path file = dir.resolve("standard.book");
+        try (InputStream in = OpeningBook.class.getResourceAsStream("standard.book")) {
+            Files.copy(in, file);
+        }
+        OpeningBook book = OpeningBook.open(file);
+        assertTrue(book.length() > 0);
+        for (int i = 0; i < book.length(); i++) {
+            assertTrue(book.shot(i) >= 0 && book.shot(i) < GameVariant.STANDARD.cells());
+        }
+    }
+
+    @Test
+    void damagedBooksAreRejected() throws IOException {
+        Path file = dir.resolve("small.book");
+        OpeningBook.learn(SMALL, 500, 10, 1).write(file);
+        byte[] good = Files.readAllBytes(file);
+
+        assertRejected(file, Arrays.copyOf(good, good.length - 4));
+        assertRejected(file, Arrays.copyOf(good, good.length + 4));
+        assertRejected(file, Arrays.copyOf(good, 12));
+        assertRejected(file, patch(good, 0, 0x12345678));
+        // Version 1 books carried priors after the opening
+        assertRejected(file, patch(good, 4, 1));
+        assertRejected(file, patch(good, good.length - 4, SMALL.cells()));
+        assertRejected(file, patch(good, 24, -1));
+    }
+
+    @Test
+    void hugeBoardsWithoutABookFailFast() throws Exception {
+        GameVariant huge = new GameVariant(300, 300, List.of(new ShipDef("Raft", 3, 10)));
+        String old = System.getProperty("battleship.bookDir");
+        System.setProperty("battleship.bookDir", dir.toString());
+        try {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> OpeningBook.forVariant(huge).get(30, TimeUnit.SECONDS));
+            assertInstanceOf(UncheckedIOException.class, e.getCause());
+            assertTrue(Files.notExists(OpeningBook.file(huge)));
+        } finally {
+            if (old == null) System.clearProperty("battleship.bookDir");
+            else System.setProperty("battleship.bookDir", old);
+        }
+    }
+
+    @Test
+    void smallBoardsLearnABookOnFirstUse() throws Exception {
+        GameVariant variant = new GameVariant(9, 7, GameVariant.STANDARD.fleet());
+        String old = System.getProperty("battleship.bookDir");
+        System.setProperty("battleship.bookDir", dir.toString());
+        try {
+            OpeningBook book = OpeningBook.forVariant(variant).get(60, TimeUnit.SECONDS);
+            assertTrue(book.length() > 0);
+            assertSameBook(book, OpeningBook.open(OpeningBook.file(variant)));
+        } finally {
+            if (old == null) System.clearProperty("battleship.bookDir");
+            else System.setProperty("battleship.bookDir", old);
+        }
+    }
+
+    private static byte[] patch(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+
+    private static void assertRejected(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
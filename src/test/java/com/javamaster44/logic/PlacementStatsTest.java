@@ -0,0 +1,125 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.ShipDef;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlacementStatsTest {
+    @TempDir
+    Path dir;
+
+    private static Board board(GameVariant variant) {
+        return new Board(variant, new SplittableRandom(1));
+    }
+
+    // Carrier across the top row, Patrol Boat down the first column below it
+    private static PlacementStats twoSetups() {
+        PlacementStats stats = new PlacementStats(GameVariant.STANDARD);
+        for (int game = 0; game < 2; game++) {
+            Board board = board(GameVariant.STANDARD);
+            board.placeShip(GameVariant.STANDARD.findShip("Carrier"), 0, 0, true);
+            board.placeShip(GameVariant.STANDARD.findShip("Patrol Boat"), 1 + game, 0, false);
+            stats.record(board);
+        }
+        return stats;
+    }
+
+    @Test
+    void countsEachCellByOrientation() {
+        PlacementStats stats = twoSetups();
+        assertEquals(2, stats.games());
+        assertEquals(2, stats.horizontal(0));
+        assertEquals(0, stats.vertical(0));
+        assertEquals(2, stats.vertical(20));
+        assertEquals(1, stats.vertical(10));
+        assertEquals(1, stats.vertical(30));
+        assertEquals(0, stats.horizontal(5));
+        assertEquals(1f, stats.heat(4));
+        assertEquals(0.5f, stats.heat(30));
+        assertTrue(stats.matches(GameVariant.STANDARD));
+        assertFalse(stats.matches(new GameVariant(11, 10, GameVariant.STANDARD.fleet())));
+    }
+
+    @Test
+    void oneColumnAndOneRowBoardsKeepTheirOrientation() {
+        List<ShipDef> fleet = List.of(new ShipDef("Raft", 3, 1));
+        GameVariant column = new GameVariant(1, 12, fleet), row = new GameVariant(12, 1, fleet);
+
+        PlacementStats down = new PlacementStats(column);
+        Board board = board(column);
+        assertTrue(board.placeShip(fleet.get(0), 2, 0, false));
+        down.record(board);
+        assertEquals(1, down.vertical(3));
+        assertEquals(0, down.horizontal(3));
+
+        PlacementStats across = new PlacementStats(row);
+        board = board(row);
+        assertTrue(board.placeShip(fleet.get(0), 0, 2, true));
+        across.record(board);
+        assertEquals(1, across.horizontal(3));
+        assertEquals(0, across.vertical(3));
+    }
+
+    @Test
+    void hotCellsAreHottestFirst() {
+        PlacementStats stats = twoSetups();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 20}, stats.hotCells(1f));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 20, 10, 30}, stats.hotCells(0.5f));
+        assertArrayEquals(new int[0], new PlacementStats(GameVariant.STANDARD).hotCells(0f));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        PlacementStats stats = twoSetups();
+        PlacementStats copy = new PlacementStats(stats);
+        Board board = board(GameVariant.STANDARD);
+        board.placeShip(GameVariant.STANDARD.findShip("Carrier"), 0, 0, true);
+        copy.record(board);
+        assertEquals(3, copy.horizontal(0));
+        assertEquals(2, stats.horizontal(0));
+    }
+
+    @Test
+    void statsRoundTrip() throws IOException {
+        PlacementStats stats = twoSetups();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        stats.write(out);
+        assertSameStats(stats, PlacementStats.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void statsRoundTripThroughTheProfile() {
+        Path file = dir.resolve("user.dat");
+        PlacementStats stats = twoSetups();
+        SaveManager.save(file, new Inventory(), 250, stats);
+        SaveManager.flush();
+        SaveManager.SaveData data = SaveManager.load(file);
+        assertNull(data.problem);
+        assertEquals(250, data.money);
+        assertTrue(data.placements.matches(GameVariant.STANDARD));
+        assertSameStats(stats, data.placements);
+    }
+
+    private static void assertSameStats(PlacementStats expected, PlacementStats actual) {
+        assertEquals(expected.games(), actual.games());
+        for (int cell = 0; cell < GameVariant.STANDARD.cells(); cell++) {
+            assertEquals(expected.horizontal(cell), actual.horizontal(cell), "cell " + cell);
+            assertEquals(expected.vertical(cell), actual.vertical(cell), "cell " + cell);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PowerupRegistryTest {
+
+    @Test
+    void everyTypeIsProvidedInOrder() {
+        PowerupType[] types = PowerupType.values();
+        assertEquals(types.length, PowerupRegistry.all().size());
+        for (int i = 0; i < types.length; i++) {
+            Powerup powerup = PowerupRegistry.get(types[i]);
+            assertNotNull(powerup, types[i].name());
+            assertEquals(types[i], powerup.type());
+            assertTrue(powerup.cost() > 0);
+            assertEquals(powerup, PowerupRegistry.all().get(i));
+        }
+    }
+
+    @Test
+    void shopChargesTheRegisteredPrice() {
+        int cost = PowerupRegistry.get(PowerupType.FRAG_BOMB).cost();
+        GameEngine engine = new GameEngine(GameVariant.STANDARD, cost, new Inventory(), new SplittableRandom(1));
+        assertTrue(engine.buyItem(PowerupType.FRAG_BOMB));
+        assertEquals(0, engine.getPlayerMoney());
+        assertEquals(1, engine.getInventory().get(PowerupType.FRAG_BOMB));
+        assertFalse(engine.buyItem(PowerupType.FRAG_BOMB));
+        assertEquals(1, engine.getInventory().get(PowerupType.FRAG_BOMB));
+    }
+
+    @Test
+    void namesAndOrdinalsLookUpTypes() {
+        for (PowerupType type : PowerupType.values()) {
+            assertEquals(type, PowerupType.fromName(type.displayName()));
+            assertEquals(type, PowerupType.fromOrdinal(type.ordinal()));
+        }
+        assertNull(PowerupType.fromName("Kraken"));
+        assertNull(PowerupType.fromOrdinal(PowerupType.values().length));
+        assertNull(PowerupType.fromOrdinal(-1));
+    }
+}
@@ -0,0 +1,84 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PowerupTest {
+
+    private static final class Events implements GameListener {
+        final List<List<Ship>> sinkBatches = new ArrayList<>();
+        int saves;
+
+        @Override
+        public void onSinks(List<Ship> ships, boolean isPlayerShooter, int moneyDelta) {
+            if (isPlayerShooter) sinkBatches.add(ships);
+        }
+
+        @Override
+        public void onSaveRequested(Inventory inventory, int money) {
+            saves++;
+        }
+    }
+
+    private static GameEngine engine(Events events, PowerupType type, int count) {
+        Inventory inventory = new Inventory();
+        inventory.set(type, count);
+        GameEngine engine = new GameEngine(GameVariant.STANDARD, 0, inventory, new SplittableRandom(6));
+        engine.setListener(events);
+        engine.startAutoGame();
+        return engine;
+    }
+
+    private static int shots(Board board) {
+        int[] n = {0};
+        board.forEachShot(cell -> n[0]++);
+        return n[0];
+    }
+
+    @Test
+    void nukeSinksTheFleetAsOneBatch() {
+        Events events = new Events();
+        GameEngine engine = engine(events, PowerupType.NUKE, 1);
+        engine.usePowerup(PowerupType.NUKE, 'A', 0);
+
+        assertEquals(100, shots(engine.getCpuBoard()));
+        assertEquals(1, events.sinkBatches.size());
+        assertEquals(5, events.sinkBatches.get(0).size());
+        assertEquals(1, events.saves);
+        int rewards = 0;
+        for (Ship ship : engine.getCpuBoard().getShips()) rewards += ship.getReward();
+        assertEquals(rewards, engine.getPlayerMoney());
+        assertEquals(0, engine.getInventory().get(PowerupType.NUKE));
+    }
+
+    @Test
+    void bombFiresItsSquareOnce() {
+        Events events = new Events();
+        GameEngine engine = engine(events, PowerupType.BOMB, 2);
+        engine.usePowerup(PowerupType.BOMB, 'A', 0);
+        assertEquals(9, shots(engine.getCpuBoard()));
+        // Overlapping the first square: only the new cells are fired
+        engine.usePowerup(PowerupType.BOMB, 'B', 1);
+        assertEquals(16, shots(engine.getCpuBoard()));
+        assertEquals(2, events.saves);
+    }
+
+    @Test
+    void nothingHappensWithoutStock() {
+        Events events = new Events();
+        GameEngine engine = engine(events, PowerupType.CROSS_FIRE, 0);
+        engine.usePowerup(PowerupType.CROSS_FIRE, 'E', 5);
+        assertEquals(0, shots(engine.getCpuBoard()));
+        assertEquals(0, events.saves);
+        assertTrue(events.sinkBatches.isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.javamaster44.logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfileStoreTest {
+    @TempDir
+    Path dir;
+
+    private static Inventory inventory(int bombs) {
+        Inventory inventory = new Inventory();
+        inventory.set(PowerupType.BOMB, bombs);
+        return inventory;
+    }
+
+    @Test
+    void profileRoundTrips() throws IOException {
+        ProfileStore store = new ProfileStore(dir, 4);
+        store.save("alice", inventory(3), 1500, null);
+        SaveManager.SaveData cached = store.load("alice");
+        assertEquals(1500, cached.money);
+        assertEquals(inventory(3), cached.inventory);
+
+        // A copy: changing it doesn't reach the store
+        cached.money = 0;
+        assertEquals(1500, store.load("alice").money);
+
+        store.flush();
+        SaveManager.SaveData reread = new ProfileStore(dir, 4).load("alice");
+        assertNull(reread.problem);
+        assertEquals(1500, reread.money);
+        assertEquals(inventory(3), reread.inventory);
+    }
+
+    @Test
+    void unknownProfileIsEmpty() throws IOException {
+        ProfileStore store = new ProfileStore(dir, 4);
+        assertEquals(0, store.load("nobody").money);
+        assertFalse(store.exists("nobody"));
+        assertEquals(0, store.cachedCount());
+        assertThrows(IllegalArgumentException.class, () -> store.load("../escape"));
+    }
+
+    @Test
+    void cacheIsTrimmedOnceWritesLand() throws IOException {
+        ProfileStore store = new ProfileStore(dir, 3);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 200; i++) store.save("p" + i, inventory(i), round * 1000 + i, null);
+        }
+        store.flush();
+        // Callbacks of the last batch ran before flush returned
+        assertTrue(store.cachedCount() <= 3, "cached " + store.cachedCount());
+
+        for (int i = 0; i < 200; i++) {
+            SaveManager.SaveData data = store.load("p" + i);
+            assertEquals(4000 + i, data.money);
+            assertEquals(inventory(i), data.inventory);
+        }
+        assertTrue(store.cachedCount() <= 3);
+
+        ProfileStore reopened = new ProfileStore(dir, 3);
+        for (int i = 0; i < 200; i++) assertEquals(4000 + i, reopened.load("p" + i).money);
+    }
+
+    @Test
+    void listsProfilesInCreationOrder() throws IOException {
+        ProfileStore store = new ProfileStore(dir, 2);
+        for (String id : List.of("c", "a", "b")) store.save(id, new Inventory(), 0, null);
+        store.save("a", new Inventory(), 10, null);
+        store.flush();
+        assertEquals(List.of("c", "a", "b"), store.list(0, 10));
+        assertEquals(List.of("a"), store.list(1, 1));
+        assertEquals(List.of(), store.list(5, 10));
+
+        ProfileStore reopened = new ProfileStore(dir, 2);
+        assertEquals(3, reopened.size());
+        assertEquals(List.of("c", "a", "b"), reopened.list(0, 10));
+    }
+
+    @Test
+    void indexIsRebuiltFromTheProfiles() throws IOException {
+        ProfileStore store = new ProfileStore(dir, 2);
+        for (String id : List.of("x", "y", "z")) store.save(id, new Inventory(), 0, null);
+        store.flush();
+        Files.write(dir.resolve("index.bin"), new byte[]{1, 2, 3});
+
+        ProfileStore rebuilt = new ProfileStore(dir, 2);
+        assertEquals(Set.of("x", "y", "z"), new HashSet<>(rebuilt.list(0, 10)));
+        assertTrue(rebuilt.exists("y"));
+    }
+}
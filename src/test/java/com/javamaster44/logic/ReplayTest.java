@@ -0,0 +1,147 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+
+    private static GameEngine engine() {
+        return new GameEngine(GameVariant.STANDARD, 300, new Inventory(), new SplittableRandom(5));
+    }
+
+    // Fires row by row, skipping the first {@code skip} cells, for up to {@code turns} turns
+    private static void shoot(GameEngine engine, int skip, int turns) {
+        int width = engine.getVariant().width();
+        for (int t = skip; t < skip + turns && engine.getGameState() == GameEngine.GameState.PLAYING; t++) {
+            engine.handlePlayerShot((char) ('A' + t / width), t % width, null);
+        }
+    }
+
+    private static Replay recordGame(GameEngine engine) {
+        ReplayRecorder recorder = new ReplayRecorder();
+        engine.setRecorder(recorder);
+        engine.startAutoGame();
+        shoot(engine, 0, 100);
+        assertEquals(GameEngine.GameState.GAME_OVER, engine.getGameState());
+        return recorder.toReplay();
+    }
+
+    private static byte[] bytes(Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.write(out);
+        return out.toByteArray();
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        for (int cell = 0; cell < expected.getVariant().cells(); cell++) {
+            assertEquals(expected.getStatus(cell), actual.getStatus(cell), "cell " + cell);
+        }
+        for (Ship s : expected.getShips()) {
+            assertEquals(s.isSunk(), actual.getShipAt(s.getCells()[0]).isSunk(), s.getName());
+        }
+    }
+
+    @Test
+    void replayRoundTrips() throws IOException {
+        GameEngine engine = engine();
+        Replay replay = recordGame(engine);
+        Replay read = Replay.read(new ByteArrayInputStream(bytes(replay)));
+
+        assertEquals(replay.variant, read.variant);
+        assertArrayEquals(replay.playerLayout, read.playerLayout);
+        assertArrayEquals(replay.cpuLayout, read.cpuLayout);
+        assertArrayEquals(replay.deltas, read.deltas);
+        assertArrayEquals(replay.turnEnd, read.turnEnd);
+        assertArrayEquals(replay.turnKind, read.turnKind);
+        assertArrayEquals(replay.turnCell, read.turnCell);
+        for (int t = 0; t <= replay.turnCount(); t++) assertEquals(replay.moneyAt(t), read.moneyAt(t));
+        assertEquals(engine.getPlayerMoney(), read.moneyAt(read.turnCount()));
+    }
+
+    @Test
+    void seekingRebuildsTheBoards() {
+        GameEngine engine = engine();
+        ReplayPlayer player = new ReplayPlayer(recordGame(engine));
+        Board untouched = new ReplayPlayer(player.getReplay()).getCpuBoard();
+
+        player.seek(Integer.MAX_VALUE);
+        assertSameBoard(engine.getPlayerBoard(), player.getPlayerBoard());
+        assertSameBoard(engine.getCpuBoard(), player.getCpuBoard());
+        assertTrue(player.getCpuBoard().allShipsSunk() || player.getPlayerBoard().allShipsSunk());
+
+        player.seek(0);
+        assertSameBoard(untouched, player.getCpuBoard());
+        player.seek(player.getReplay().turnCount() / 2);
+        player.seek(Integer.MAX_VALUE);
+        assertSameBoard(engine.getCpuBoard(), player.getCpuBoard());
+    }
+
+    @Test
+    void undoingASinkRedrawsTheWholeShip() {
+        ReplayPlayer player = new ReplayPlayer(recordGame(engine()));
+        Replay replay = player.getReplay();
+        player.seek(replay.turnCount());
+        // The last turn sank the loser's last ship
+        int last = replay.turnCount() - 1;
+        Board board = replay.turnKind[last] == Replay.KIND_CPU ? player.getPlayerBoard() : player.getCpuBoard();
+        Set<Integer> redrawn = new HashSet<>();
+        board.setCellListener(redrawn::add);
+        player.seek(last);
+        Ship afloat = board.getShipAt(replay.turnCell[last]);
+        assertFalse(afloat.isSunk());
+        for (int cell : afloat.getCells()) assertTrue(redrawn.contains(cell), "cell " + cell);
+    }
+
+    @Test
+    void recordingStartedMidGameOpensWithTheShotsSoFar() {
+        GameEngine engine = engine();
+        engine.startAutoGame();
+        shoot(engine, 0, 20);
+        ReplayRecorder recorder = new ReplayRecorder();
+        engine.setRecorder(recorder);
+        shoot(engine, 20, 10);
+
+        Replay replay = recorder.toReplay();
+        assertEquals(Replay.KIND_RESUMED, replay.turnKind[0]);
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.seek(replay.turnCount());
+        assertSameBoard(engine.getPlayerBoard(), player.getPlayerBoard());
+        assertSameBoard(engine.getCpuBoard(), player.getCpuBoard());
+    }
+
+    @Test
+    void truncatedReplaysAreRejected() throws IOException {
+        byte[] bytes = bytes(recordGame(engine()));
+        for (int n = 0; n < bytes.length; n++) {
+            byte[] prefix = Arrays.copyOf(bytes, n);
+            assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(prefix)), "length " + n);
+        }
+    }
+
+    @Test
+    void hugeTurnCountRunsIntoTheEndOfTheData() throws IOException {
+        Replay empty = new Replay(GameVariant.STANDARD, new int[5], new int[5], 0,
+                new int[0], new int[0], new byte[0], new int[0], new int[0]);
+        byte[] bytes = bytes(empty);
+        // The turn count is the last field of a replay with no turns
+        byte[] forged = Arrays.copyOf(bytes, bytes.length + 4);
+        System.arraycopy(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, forged, bytes.length - 1, 5);
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(forged)));
+    }
+}
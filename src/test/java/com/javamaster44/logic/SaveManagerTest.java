@@ -0,0 +1,115 @@
+package com.javamaster44.logic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaveManagerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void profileRoundTrips() {
+        Path file = dir.resolve("user.dat");
+        Inventory inventory = new Inventory();
+        inventory.set(PowerupType.NUKE, 2);
+        inventory.set(PowerupType.BOMB, 300);
+        SaveManager.save(file, inventory, -45, null);
+        SaveManager.flush();
+
+        SaveManager.SaveData data = SaveManager.load(file);
+        assertNull(data.problem);
+        assertEquals(-45, data.money);
+        assertEquals(inventory, data.inventory);
+        assertNull(data.placements);
+        assertFalse(SaveManager.isPending(file));
+    }
+
+    @Test
+    void burstOfSavesLeavesTheNewest() {
+        Path file = dir.resolve("user.dat");
+        Inventory inventory = new Inventory();
+        for (int money = 0; money <= 100; money++) {
+            inventory.set(PowerupType.TORPEDO, money);
+            SaveManager.save(file, inventory, money, null);
+        }
+        SaveManager.flush();
+        SaveManager.SaveData data = SaveManager.load(file);
+        assertEquals(100, data.money);
+        assertEquals(100, data.inventory.get(PowerupType.TORPEDO));
+    }
+
+    @Test
+    void missingProfileIsFreshWithoutAProblem() {
+        SaveManager.SaveData data = SaveManager.load(dir.resolve("nobody.dat"));
+        assertEquals(0, data.money);
+        assertEquals(new Inventory(), data.inventory);
+        assertNull(data.problem);
+    }
+
+    @Test
+    void legacyProfileIsReadAndRewritten() throws Exception {
+        Path file = dir.resolve("user.dat");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("ThisIsASecretKey".getBytes(), "AES"));
+        byte[] text = cipher.doFinal("MONEY=123\nBomb=2\nCross Fire=1\n".getBytes(StandardCharsets.UTF_8));
+        Files.writeString(file, Base64.getEncoder().encodeToString(text));
+
+        SaveManager.SaveData data = SaveManager.load(file);
+        assertNull(data.problem);
+        assertEquals(123, data.money);
+        assertEquals(2, data.inventory.get(PowerupType.BOMB));
+        assertEquals(1, data.inventory.get(PowerupType.CROSS_FIRE));
+
+        SaveManager.flush();
+        byte[] migrated = Files.readAllBytes(file);
+        assertArrayEquals("BSAV".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(migrated, 4));
+        SaveManager.SaveData again = SaveManager.load(file);
+        assertEquals(123, again.money);
+        assertEquals(data.inventory, again.inventory);
+    }
+
+    @Test
+    void tamperedProfileIsSetAside() throws Exception {
+        Path file = dir.resolve("user.dat");
+        Inventory inventory = new Inventory();
+        inventory.set(PowerupType.NUKE, 1);
+        SaveManager.save(file, inventory, 5000, null);
+        SaveManager.flush();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 20] ^= 1;
+        Files.write(file, bytes);
+
+        SaveManager.SaveData data = SaveManager.load(file);
+        assertNotNull(data.problem);
+        assertEquals(0, data.money);
+        assertFalse(Files.exists(file));
+        assertArrayEquals(bytes, Files.readAllBytes(dir.resolve("user.dat.corrupt")));
+    }
+
+    @Test
+    void truncatedProfileIsSetAside() throws Exception {
+        Path file = dir.resolve("user.dat");
+        SaveManager.save(file, new Inventory(), 10, null);
+        SaveManager.flush();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertNotNull(SaveManager.load(file).problem);
+        assertTrue(Files.exists(dir.resolve("user.dat.corrupt")));
+    }
+}
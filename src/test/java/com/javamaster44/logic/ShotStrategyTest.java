@@ -0,0 +1,80 @@
+package com.javamaster44.logic;
+
+import com.javamaster44.model.Board;
+import com.javamaster44.model.GameVariant;
+import com.javamaster44.model.Ship;
+import com.javamaster44.sim.SimulatedGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShotStrategyTest {
+
+    @Test
+    void everyCellIsTriedOnceThenNone() {
+        for (StrategyType type : List.of(StrategyType.HUNT_TARGET, StrategyType.DENSITY)) {
+            ShotStrategy strategy = type.create(GameVariant.STANDARD, new SplittableRandom(1));
+            for (int game = 0; game < 2; game++) {
+                strategy.reset();
+                boolean[] fired = new boolean[GameVariant.STANDARD.cells()];
+                for (int i = 0; i < fired.length; i++) {
+                    int cell = strategy.nextShot();
+                    assertFalse(fired[cell], type + " repeated " + cell);
+                    fired[cell] = true;
+                    strategy.onShotResult(cell, false, null);
+                }
+                assertEquals(-1, strategy.nextShot(), type.name());
+            }
+        }
+    }
+
+    @Test
+    void hitsAreFollowedUpNextDoor() {
+        Board board = new Board(GameVariant.STANDARD, new SplittableRandom(2));
+        board.placeShipsRandomly();
+        for (StrategyType type : List.of(StrategyType.HUNT_TARGET, StrategyType.DENSITY)) {
+            ShotStrategy strategy = type.create(GameVariant.STANDARD, new SplittableRandom(3));
+            Ship ship = board.getShips().get(0);
+            int hit = ship.getCells()[1];
+            strategy.onShotResult(hit, true, null);
+            int next = strategy.nextShot();
+            int distance = Math.abs(next / 10 - hit / 10) + Math.abs(next % 10 - hit % 10);
+            assertEquals(1, distance, type + " fired at " + next + " after a hit at " + hit);
+        }
+    }
+
+    @Test
+    void densityNeedsFewerShotsThanHuntTarget() {
+        assertTrue(meanShots(StrategyType.DENSITY) < meanShots(StrategyType.HUNT_TARGET) - 5);
+    }
+
+    @Test
+    void densityRefusesHugeBoards() {
+        GameVariant huge = new GameVariant(300, 300, GameVariant.STANDARD.fleet());
+        assertThrows(IllegalArgumentException.class, () -> new DensityStrategy(huge, new SplittableRandom(1)));
+    }
+
+    private static double meanShots(StrategyType player) {
+        // The CPU can't shoot back, so every game runs until the player has sunk the fleet
+        SimulatedGame game = new SimulatedGame(GameVariant.STANDARD, new SplittableRandom(4), player, StrategyType.HUNT_TARGET);
+        game.getEngine().setCpuStrategy(new ShotStrategy() {
+            @Override
+            public void reset() {}
+
+            @Override
+            public int nextShot() { return -1; }
+
+            @Override
+            public void onShotResult(int cell, boolean hit, Ship sunk) {}
+        });
+        long shots = 0;
+        for (int i = 0; i < 300; i++) shots += game.play().playerShots();
+        return shots / 300.0;
+    }
+}
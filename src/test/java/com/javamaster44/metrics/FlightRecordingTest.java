@@ -0,0 +1,59 @@
+package com.javamaster44.metrics;
+
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.Inventory;
+import com.javamaster44.logic.PowerupType;
+import com.javamaster44.model.GameVariant;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingTest {
+    @TempDir
+    Path dir;
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals("com.javamaster44." + name)).toList();
+    }
+
+    @Test
+    void gameActionsAreRecordedWithTheBundledSettings() throws Exception {
+        Path file = dir.resolve("game.jfr");
+        Inventory inventory = new Inventory();
+        inventory.set(PowerupType.NUKE, 1);
+        GameEngine engine = new GameEngine(GameVariant.STANDARD, 0, inventory, new SplittableRandom(3));
+        engine.startAutoGame();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording(FlightRecording.settings())) {
+            recording.start();
+            engine.handlePlayerShot('A', 0, null);
+            engine.handlePlayerShot('A', 1, PowerupType.NUKE);
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        // The plain shot and the CPU's reply; the nuke's cells go into one Powerup event
+        List<RecordedEvent> shots = named(events, "Shot");
+        assertEquals(2, shots.size());
+        assertEquals(0, shots.get(0).getInt("cell"));
+        assertTrue(shots.get(0).getBoolean("playerShot"));
+
+        List<RecordedEvent> powerups = named(events, "Powerup");
+        assertEquals(1, powerups.size());
+        assertEquals("NUKE", powerups.get(0).getString("powerup"));
+        // Every cell the nuke covered, the one already shot included
+        assertEquals(100, powerups.get(0).getInt("cellsFired"));
+        assertEquals(named(events, "Sink").size(), engine.getCpuBoard().getShips().size());
+        assertEquals(1, named(events, "CpuTurn").size());
+    }
+}
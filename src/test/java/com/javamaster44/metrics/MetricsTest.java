@@ -0,0 +1,67 @@
+package com.javamaster44.metrics;
+
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.Inventory;
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MetricsTest {
+
+    @Test
+    void bucketsAreWithinThreePercent() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(1L << random.nextInt(1, 62));
+            int index = LatencyHistogram.index(value);
+            long upper = LatencyHistogram.upperBound(index);
+            assertTrue(upper >= value, value + " above its bucket's bound " + upper);
+            assertTrue(upper - value <= value / 32, value + " too far from " + upper);
+            assertEquals(index, LatencyHistogram.index(upper));
+            if (index > 0) assertTrue(LatencyHistogram.upperBound(index - 1) < value);
+        }
+        for (int v = 0; v < 64; v++) assertTrue(LatencyHistogram.upperBound(LatencyHistogram.index(v)) >= v);
+    }
+
+    @Test
+    void percentilesFollowTheRecordedTimes() {
+        assumeTrue(Metrics.ENABLED, "needs -Dbattleship.metrics=true");
+        LatencyHistogram h = new LatencyHistogram("test", true);
+        for (int i = 1; i <= 1000; i++) h.record(i * 1000L);
+        assertEquals(1000, h.getCount());
+        assertEquals(500.5, h.getMeanMicros(), 1e-9);
+        assertEquals(500, h.getP50Micros(), 500 * 0.04);
+        assertEquals(990, h.getP99Micros(), 990 * 0.04);
+        assertEquals(1000, h.getMaxMicros(), 1e-9);
+        h.record(-5);
+        assertEquals(0, h.percentileNanos(0));
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getP99Micros());
+    }
+
+    @Test
+    void engineTurnsAreTimedAndExported() throws Exception {
+        assumeTrue(Metrics.ENABLED, "needs -Dbattleship.metrics=true");
+        long before = Metrics.PLAYER_TURN.getCount();
+        GameEngine engine = new GameEngine(GameVariant.STANDARD, 0, new Inventory(), new SplittableRandom(2));
+        engine.startAutoGame();
+        engine.handlePlayerShot('A', 0, null);
+        engine.handlePlayerShot('A', 1, null);
+        assertEquals(before + 2, Metrics.PLAYER_TURN.getCount());
+        assertTrue(Metrics.CPU_TURN.getCount() >= 2);
+
+        assertTrue(Metrics.toText().contains("playerTurn"));
+        assertTrue(Metrics.toJson().contains("\"savesCoalesced\":"));
+        Object count = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName("com.javamaster44:type=Latency,name=playerTurn"), "Count");
+        assertEquals(Metrics.PLAYER_TURN.getCount(), count);
+    }
+}
@@ -0,0 +1,105 @@
+package com.javamaster44.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardStateTest {
+
+    private static Board board(GameVariant variant, long seed) {
+        Board board = new Board(variant, new SplittableRandom(seed));
+        board.placeShipsRandomly();
+        return board;
+    }
+
+    private static void assertSameBoard(Board board, BoardState state) {
+        for (int cell = 0; cell < board.getVariant().cells(); cell++) {
+            assertEquals(board.getStatus(cell), state.status(cell), "cell " + cell);
+        }
+        for (int s = 0; s < state.shipCount(); s++) {
+            Ship ship = board.getShips().get(s);
+            assertEquals(ship.getName(), state.shipName(s));
+            assertEquals(ship.isSunk(), state.isSunk(s), ship.getName());
+        }
+        assertEquals(board.allShipsSunk(), state.allShipsSunk());
+    }
+
+    @Test
+    void snapshotMatchesTheBoard() {
+        Board board = board(GameVariant.STANDARD, 1);
+        for (int cell = 0; cell < 40; cell += 3) board.fire(cell);
+        BoardState state = BoardState.of(board);
+        assertSameBoard(board, state);
+        assertEquals(14, state.shotCount());
+        for (Ship ship : board.getShips()) {
+            int s = state.shipAt(ship.getCells()[0]);
+            assertEquals(ship.getName(), state.shipName(s));
+            assertEquals(ship.getCellCount(), state.shipLength(s));
+        }
+    }
+
+    @Test
+    void firingForksWithoutTouchingTheParent() {
+        Board board = board(GameVariant.STANDARD, 2);
+        BoardState root = BoardState.of(board);
+        Ship target = board.getShips().get(0);
+        int cell = target.getCells()[0];
+        int ship = root.shipAt(cell);
+
+        BoardState hit = root.fire(cell);
+        assertEquals(3, root.status(cell));
+        assertEquals(0, root.damage(ship));
+        assertEquals(0, root.shotCount());
+        assertEquals(2, hit.status(cell));
+        assertEquals(1, hit.damage(ship));
+        assertSame(hit, hit.fire(cell));
+
+        int empty = 0;
+        while (board.getStatus(empty) != 0) empty++;
+        BoardState miss = root.fire(empty), other = root.fire(empty);
+        assertEquals(1, miss.status(empty));
+        assertEquals(0, root.status(empty));
+        assertEquals(3, miss.status(cell));
+        assertFalse(hit.isShot(empty));
+        assertEquals(miss.status(empty), other.status(empty));
+
+        BoardState sunk = root;
+        for (int c : target.getCells()) sunk = sunk.fire(c);
+        assertTrue(sunk.isSunk(ship));
+        assertFalse(root.isSunk(ship));
+        assertFalse(hit.isSunk(ship));
+    }
+
+    @Test
+    void playsOutLikeTheBoardOnAMultiLevelTrie() {
+        // Over 64 leaves of 4096 cells, so shots go through two node levels
+        GameVariant variant = new GameVariant(600, 600, GameVariant.repeatedFleet(GameVariant.STANDARD.fleet(), 20));
+        Board board = board(variant, 3);
+        BoardState state = BoardState.of(board);
+        BoardState start = state;
+        SplittableRandom random = new SplittableRandom(4);
+        for (int i = 0; i < 3000; i++) {
+            int cell = random.nextInt(variant.cells());
+            board.fire(cell);
+            state = state.fire(cell);
+            assertEquals(board.getStatus(cell), state.status(cell));
+        }
+        // Every ship cell too, so the fleet ends up sunk
+        for (Ship ship : board.getShips()) {
+            for (int cell : ship.getCells()) {
+                board.fire(cell);
+                state = state.fire(cell);
+            }
+        }
+        assertSameBoard(board, state);
+        assertTrue(state.allShipsSunk());
+        assertEquals(0, start.shotCount());
+        assertFalse(start.allShipsSunk());
+        for (Ship ship : board.getShips()) assertEquals(3, start.status(ship.getCells()[0]));
+    }
+}
@@ -0,0 +1,120 @@
+package com.javamaster44.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardTest {
+    private static Board board() {
+        return new Board(GameVariant.STANDARD, new SplittableRandom(1));
+    }
+
+    @Test
+    void everyStatusReadsBackFromEveryOther() {
+        Board board = board();
+        for (int from = 0; from < 4; from++) {
+            for (int to = 0; to < 4; to++) {
+                board.setStatus(42, from);
+                board.setStatus(42, to);
+                assertEquals(to, board.getStatus(42), from + " -> " + to);
+            }
+        }
+        assertEquals(0, board.getStatus(41));
+        assertEquals(0, board.getStatus(43));
+    }
+
+    @Test
+    void allShipsSunkTracksUnhitShipCells() {
+        Board board = board();
+        assertTrue(board.allShipsSunk());
+        board.setStatus(3, 3);
+        board.setStatus(4, 3);
+        assertFalse(board.allShipsSunk());
+        board.setStatus(3, 2);
+        assertFalse(board.allShipsSunk());
+        board.setStatus(4, 2);
+        assertTrue(board.allShipsSunk());
+        board.setStatus(4, 3);
+        assertFalse(board.allShipsSunk());
+    }
+
+    @Test
+    void listenerHearsOnlyRealChanges() {
+        Board board = board();
+        List<Integer> changed = new ArrayList<>();
+        board.setCellListener(changed::add);
+        board.setStatus(7, 1);
+        board.setStatus(7, 1);
+        board.setStatus(8, 0);
+        assertEquals(List.of(7), changed);
+    }
+
+    @Test
+    void statusesAreIndependentAcrossPagesOfABigBoard() {
+        GameVariant big = new GameVariant(300, 300, GameVariant.STANDARD.fleet());
+        Board board = new Board(big, new SplittableRandom(1));
+        int[] cells = {0, 4095, 4096, 8191, big.cells() - 1};
+        for (int i = 0; i < cells.length; i++) board.setStatus(cells[i], 1 + i % 3);
+        for (int i = 0; i < cells.length; i++) assertEquals(1 + i % 3, board.getStatus(cells[i]));
+        assertEquals(0, board.getStatus(4094));
+        assertEquals(0, board.getStatus(4097));
+    }
+
+    @Test
+    void shipIndexFollowsPlaceAndRemove() {
+        Board board = board();
+        assertTrue(board.placeShip(new ShipDef("Destroyer", 3, 800), 2, 4, true));
+        assertTrue(board.placeShip(new ShipDef("Patrol Boat", 2, 1100), 5, 0, false));
+        assertFalse(board.placeShip(new ShipDef("Overlap", 2, 1), 1, 5, false));
+        assertEquals("Destroyer", board.getShipAt(24).getName());
+        assertEquals("Destroyer", board.getShipAt(26).getName());
+        assertEquals("Patrol Boat", board.getShipAt(60).getName());
+        assertNull(board.getShipAt(27));
+
+        board.removeShip("Destroyer");
+        assertNull(board.getShipAt(24));
+        assertEquals(0, board.getStatus(25));
+        // The freed slot is reused without disturbing the other ship
+        assertTrue(board.placeShip(new ShipDef("Submarine", 3, 900), 0, 0, true));
+        assertEquals("Submarine", board.getShipAt(2).getName());
+        assertEquals("Patrol Boat", board.getShipAt(50).getName());
+    }
+
+    @Test
+    void placementsAreRejectedOnceShipIdsRunOut() {
+        Board board = new Board(new GameVariant(256, 256, GameVariant.STANDARD.fleet()), new SplittableRandom(1));
+        ShipDef buoy = new ShipDef("Buoy", 1, 1);
+        for (int cell = 0; cell < Short.MAX_VALUE; cell++) {
+            assertTrue(board.placeShip(buoy, cell / 256, cell % 256, true));
+        }
+        assertFalse(board.placeShip(buoy, 255, 255, true));
+        assertEquals(0, board.getStatus(255 * 256 + 255));
+        assertEquals(Short.MAX_VALUE, board.getShips().size());
+        assertNotNull(board.getShipAt(Short.MAX_VALUE - 1));
+    }
+
+    @Test
+    void fireReportsEachOutcome() {
+        Board board = board();
+        assertTrue(board.placeShip(new ShipDef("Patrol Boat", 2, 1100), 0, 0, true));
+        assertEquals(ShotResult.MISS, board.fire(5));
+        assertEquals(ShotResult.REPEAT, board.fire(5));
+        assertEquals(ShotResult.HIT, board.fire(0));
+        assertTrue(ShotResult.HIT.isHit());
+        assertEquals(ShotResult.REPEAT, board.fire(0));
+        assertFalse(board.getShipAt(0).isSunk());
+        assertEquals(ShotResult.SUNK, board.fire(1));
+        assertTrue(board.getShipAt(1).isSunk());
+        assertTrue(board.allShipsSunk());
+        assertEquals(1, board.getStatus(5));
+        assertEquals(2, board.getStatus(1));
+    }
+}
@@ -0,0 +1,84 @@
+package com.javamaster44.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellMaskTest {
+    private static final int PAGE = 1 << CellMask.PAGE_SHIFT;
+
+    @Test
+    void pagesAreOnlyAllocatedWhenSet() {
+        CellMask mask = new CellMask(3 * PAGE + 1);
+        assertEquals(4, mask.pageCount());
+        assertFalse(mask.get(PAGE));
+        mask.clear(PAGE);
+        mask.assign(PAGE, 0);
+        for (int p = 0; p < 4; p++) assertNull(mask.pageIfPresent(p));
+
+        mask.set(PAGE - 1);
+        mask.assign(3 * PAGE, 1);
+        assertNotNull(mask.pageIfPresent(0));
+        assertNull(mask.pageIfPresent(1));
+        assertNull(mask.pageIfPresent(2));
+        assertNotNull(mask.pageIfPresent(3));
+        assertTrue(mask.get(PAGE - 1));
+        assertFalse(mask.get(PAGE));
+        assertEquals(1, mask.bit(3 * PAGE));
+    }
+
+    @Test
+    void agreesWithBitSet() {
+        int cells = 3 * PAGE + 100;
+        CellMask mask = new CellMask(cells);
+        BitSet expected = new BitSet(cells);
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 20_000; i++) {
+            int cell = random.nextInt(cells);
+            switch (random.nextInt(3)) {
+                case 0 -> { mask.set(cell); expected.set(cell); }
+                case 1 -> { mask.clear(cell); expected.clear(cell); }
+                default -> {
+                    int value = random.nextInt(2);
+                    mask.assign(cell, value);
+                    expected.set(cell, value == 1);
+                }
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) assertEquals(expected.get(cell), mask.get(cell), "cell " + cell);
+    }
+
+    @Test
+    void anyInRunCrossesWordAndPageBoundaries() {
+        CellMask mask = new CellMask(2 * PAGE);
+        mask.set(PAGE + 3);
+        assertTrue(mask.anyInRun(PAGE - 10, 14));
+        assertFalse(mask.anyInRun(PAGE - 10, 13));
+        assertFalse(mask.anyInRun(PAGE + 4, 200));
+        assertTrue(mask.anyInRun(0, 2 * PAGE));
+
+        mask.set(127);
+        assertTrue(mask.anyInRun(60, 68));
+        assertFalse(mask.anyInRun(60, 67));
+        assertTrue(mask.anyInRun(64, 64));
+        assertTrue(mask.anyInRun(127, 1));
+        assertFalse(mask.anyInRun(128, 0));
+    }
+
+    @Test
+    void clearAllKeepsPagesButNotBits() {
+        CellMask mask = new CellMask(2 * PAGE);
+        mask.set(5);
+        mask.set(PAGE + 5);
+        mask.clearAll();
+        assertFalse(mask.anyInRun(0, 2 * PAGE));
+        assertNotNull(mask.pageIfPresent(1));
+    }
+}
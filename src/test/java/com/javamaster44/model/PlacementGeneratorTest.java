@@ -0,0 +1,72 @@
+package com.javamaster44.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlacementGeneratorTest {
+
+    @Test
+    void sampledFleetsAlwaysFitTheBoard() {
+        PlacementGenerator generator = new PlacementGenerator(GameVariant.STANDARD);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 500; i++) {
+            Board board = new Board(GameVariant.STANDARD, random);
+            assertTrue(generator.apply(board, generator.sample(random)));
+            assertEquals(5, board.getShips().size());
+        }
+    }
+
+    @Test
+    void sampleManyIsReproducible() {
+        PlacementGenerator generator = new PlacementGenerator(GameVariant.STANDARD);
+        int[][] a = generator.sampleMany(50, 42), b = generator.sampleMany(50, 42);
+        for (int i = 0; i < a.length; i++) assertArrayEquals(a[i], b[i]);
+    }
+
+    @Test
+    void everyLegalPlacementIsEquallyLikely() {
+        // One 2-cell ship on a 3x3 board with the centre taken: 8 of its 12 placements are legal
+        GameVariant variant = new GameVariant(3, 3, List.of(new ShipDef("Patrol Boat", 2, 1)));
+        Board board = new Board(variant, new SplittableRandom(1));
+        assertTrue(board.placeShip(new ShipDef("Buoy", 1, 1), 1, 1, true));
+        PlacementGenerator generator = new PlacementGenerator(variant);
+        SplittableRandom random = new SplittableRandom(3);
+        Map<Integer, Integer> counts = new HashMap<>();
+        int draws = 40_000;
+        for (int i = 0; i < draws; i++) {
+            int[] layout = generator.sample(random, board);
+            assertNotNull(layout);
+            int start = PlacementGenerator.startCell(layout[0]);
+            assertFalse(start == 4 || start + (PlacementGenerator.isHorizontal(layout[0]) ? 1 : 3) == 4);
+            counts.merge(layout[0], 1, Integer::sum);
+        }
+        assertEquals(8, counts.size());
+        for (int n : counts.values()) {
+            assertTrue(Math.abs(n - draws / 8) < draws / 80, "uneven placement counts " + counts);
+        }
+    }
+
+    @Test
+    void noLayoutWhenTheBoardIsFull() {
+        GameVariant variant = new GameVariant(2, 2, List.of(new ShipDef("Patrol Boat", 2, 1)));
+        Board board = new Board(variant, new SplittableRandom(1));
+        assertTrue(board.placeShip(new ShipDef("Top", 2, 1), 0, 0, true));
+        PlacementGenerator generator = new PlacementGenerator(variant);
+        assertNotNull(generator.sample(new SplittableRandom(1), board));
+        assertTrue(board.placeShip(new ShipDef("Bottom", 2, 1), 1, 0, true));
+        assertNull(generator.sample(new SplittableRandom(1), board));
+        // A failed draw leaves no scratch state behind
+        assertNotNull(generator.sample(new SplittableRandom(1)));
+    }
+}
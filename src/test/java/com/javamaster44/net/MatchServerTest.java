@@ -0,0 +1,116 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchServerTest {
+    private MatchServer server;
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+
+    @BeforeEach
+    void connect() throws IOException {
+        server = new MatchServer(0, GameVariant.STANDARD);
+        server.start();
+        socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        in = new DataInputStream(socket.getInputStream());
+        out = new DataOutputStream(socket.getOutputStream());
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    private void newGame() throws IOException {
+        out.writeByte(Protocol.NEW_GAME);
+        out.writeByte(StrategyType.HUNT_TARGET.ordinal());
+        out.flush();
+        assertEquals(Protocol.STARTED, in.readUnsignedByte());
+        assertEquals(10, in.readUnsignedShort());
+        assertEquals(10, in.readUnsignedShort());
+    }
+
+    // Returns the outcome byte; the CPU's cell is checked against it
+    private int shoot(int cell) throws IOException {
+        out.writeByte(Protocol.SHOT);
+        out.writeInt(cell);
+        out.flush();
+        assertEquals(Protocol.RESULT, in.readUnsignedByte());
+        int outcome = in.readUnsignedByte();
+        int cpuCell = in.readInt();
+        boolean cpuFired = (outcome >> Protocol.CPU_SHIFT & 3) != 0;
+        assertEquals(cpuFired, cpuCell >= 0);
+        return outcome;
+    }
+
+    private int error() throws IOException {
+        assertEquals(Protocol.ERROR, in.readUnsignedByte());
+        return in.readUnsignedByte();
+    }
+
+    @Test
+    void playsAGameToTheEnd() throws IOException {
+        newGame();
+        int outcome = 0;
+        for (int cell = 0; cell < 100 && (outcome & Protocol.GAME_OVER) == 0; cell++) {
+            outcome = shoot(cell);
+            assertNotEquals(Protocol.REPEAT, outcome & 3);
+        }
+        assertTrue((outcome & Protocol.GAME_OVER) != 0);
+        // The game is over until the next NEW_GAME
+        out.writeByte(Protocol.SHOT);
+        out.writeInt(99);
+        out.flush();
+        assertEquals(Protocol.ERR_NO_GAME, error());
+        newGame();
+        assertNotEquals(Protocol.REPEAT, shoot(0) & 3);
+    }
+
+    @Test
+    void repeatShotGivesTheCpuNoTurn() throws IOException {
+        newGame();
+        shoot(42);
+        assertEquals(Protocol.REPEAT, shoot(42));
+    }
+
+    @Test
+    void badRequestsGetErrors() throws IOException {
+        out.writeByte(Protocol.SHOT);
+        out.writeInt(0);
+        out.flush();
+        assertEquals(Protocol.ERR_NO_GAME, error());
+
+        out.writeByte(Protocol.NEW_GAME);
+        out.writeByte(StrategyType.values().length);
+        out.flush();
+        assertEquals(Protocol.ERR_BAD_STRATEGY, error());
+
+        newGame();
+        out.writeByte(Protocol.SHOT);
+        out.writeInt(100);
+        out.flush();
+        assertEquals(Protocol.ERR_BAD_CELL, error());
+
+        out.writeByte(0x7E);
+        out.flush();
+        assertEquals(Protocol.ERR_BAD_OPCODE, error());
+        // Framing is lost, so the server hangs up
+        assertEquals(-1, in.read());
+    }
+}
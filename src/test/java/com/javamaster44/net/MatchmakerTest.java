@@ -0,0 +1,115 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchmakerTest {
+
+    @Test
+    void bucketsDoubleInMoney() {
+        assertEquals(0, Matchmaker.bucketOf(-100));
+        assertEquals(0, Matchmaker.bucketOf(499));
+        assertEquals(1, Matchmaker.bucketOf(500));
+        assertEquals(1, Matchmaker.bucketOf(999));
+        assertEquals(2, Matchmaker.bucketOf(1000));
+        assertEquals(3, Matchmaker.bucketOf(2000));
+        assertEquals(Matchmaker.BUCKETS - 1, Matchmaker.bucketOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void pairsPlayersAndReportsBothSides() throws Exception {
+        Matchmaker mm = new Matchmaker((first, second) -> new Matchmaker.Outcome(true, 17, 30), 2, 4);
+        Ticket a = mm.enqueue(new Ticket("a", 600, null));
+        Ticket b = mm.enqueue(new Ticket("b", 700, null));
+
+        Ticket.Result ra = a.result().get(5, TimeUnit.SECONDS), rb = b.result().get(5, TimeUnit.SECONDS);
+        assertTrue(ra.won());
+        assertFalse(rb.won());
+        assertEquals(17, ra.shots());
+        assertEquals(30, rb.shots());
+        assertSame(b, ra.opponent());
+        assertSame(a, rb.opponent());
+        assertFalse(a.cancel());
+        mm.close();
+        assertEquals(1, mm.getStats().matchesFinished());
+    }
+
+    @Test
+    void cpuTicketsPlayAlone() throws Exception {
+        List<Ticket> seconds = new ArrayList<>();
+        Matchmaker mm = new Matchmaker((first, second) -> {
+            synchronized (seconds) {
+                seconds.add(second);
+            }
+            return new Matchmaker.Outcome(false, 50, 0);
+        }, 1, 1);
+        Ticket t = mm.enqueue(new Ticket("a", 0, StrategyType.DENSITY));
+        assertFalse(t.result().get(5, TimeUnit.SECONDS).won());
+        mm.close();
+        assertEquals(1, seconds.size());
+        assertNull(seconds.get(0));
+    }
+
+    @Test
+    void cancelledTicketsAreSkipped() throws Exception {
+        Matchmaker mm = new Matchmaker((first, second) -> new Matchmaker.Outcome(true, 1, 1), 1, 4);
+        Ticket gone = mm.enqueue(new Ticket("gone", 0, null));
+        assertTrue(gone.cancel());
+        Ticket a = mm.enqueue(new Ticket("a", 0, null));
+        Ticket b = mm.enqueue(new Ticket("b", 0, null));
+        assertSame(b, a.result().get(5, TimeUnit.SECONDS).opponent());
+        assertTrue(gone.result().isCancelled());
+        mm.close();
+    }
+
+    @Test
+    void capacityBoundsRunningMatches() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(), peak = new AtomicInteger();
+        Matchmaker mm = new Matchmaker((first, second) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return new Matchmaker.Outcome(true, 1, 0);
+        }, 4, 2);
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 6; i++) tickets.add(mm.enqueue(new Ticket("p" + i, 0, StrategyType.HUNT_TARGET)));
+        Thread.sleep(100);
+        assertEquals(2, mm.getStats().matchesStarted());
+        assertEquals(4, mm.getStats().waiting());
+
+        release.countDown();
+        for (Ticket t : tickets) assertTrue(t.result().get(5, TimeUnit.SECONDS).won());
+        assertEquals(2, peak.get());
+        mm.close();
+    }
+
+    @Test
+    void closeCancelsWaitingTickets() throws Exception {
+        Matchmaker mm = new Matchmaker((first, second) -> new Matchmaker.Outcome(true, 1, 1), 1, 4);
+        Ticket alone = mm.enqueue(new Ticket("alone", 0, null));
+        Thread.sleep(20);
+        mm.close();
+        assertThrows(CancellationException.class, () -> alone.result().get(5, TimeUnit.SECONDS));
+        assertFalse(alone.cancel());
+        assertThrows(IllegalStateException.class, () -> mm.enqueue(new Ticket("late", 0, null)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.javamaster44.net;
+
+import com.javamaster44.logic.StrategyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketTest {
+
+    @Test
+    void waitingTicketCancels() {
+        Ticket t = new Ticket("a", 0, null);
+        assertTrue(t.cancel());
+        assertTrue(t.result().isCancelled());
+        assertFalse(t.isWaiting());
+        assertFalse(t.take());
+        assertFalse(t.claim());
+        assertFalse(t.cancel());
+    }
+
+    @Test
+    void takenTicketStaysTaken() {
+        Ticket t = new Ticket("a", 0, StrategyType.HUNT_TARGET);
+        assertTrue(t.take());
+        assertFalse(t.take());
+        assertFalse(t.cancel());
+        assertFalse(t.result().isDone());
+    }
+
+    @Test
+    void cancelWaitsOutAClaimThatIsHandedBack() throws Exception {
+        Ticket t = new Ticket("a", 0, null);
+        assertTrue(t.claim());
+        CompletableFuture<Boolean> cancelled = CompletableFuture.supplyAsync(t::cancel);
+        Thread.sleep(50);
+        assertFalse(cancelled.isDone());
+        t.unclaim();
+        assertTrue(cancelled.get(5, TimeUnit.SECONDS));
+        assertFalse(t.claim());
+    }
+
+    @Test
+    void cancelWaitsOutAClaimThatIsConfirmed() throws Exception {
+        Ticket t = new Ticket("a", 0, null);
+        assertTrue(t.claim());
+        CompletableFuture<Boolean> cancelled = CompletableFuture.supplyAsync(t::cancel);
+        Thread.sleep(50);
+        assertFalse(cancelled.isDone());
+        t.confirm();
+        assertEquals(false, cancelled.get(5, TimeUnit.SECONDS));
+        assertFalse(t.result().isDone());
+    }
+}
@@ -0,0 +1,35 @@
+package com.javamaster44.sim;
+
+import com.javamaster44.logic.GameEngine;
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatedGameTest {
+
+    @Test
+    void everyGameEndsAndAddsUp() {
+        SimulatedGame game = new SimulatedGame(new SplittableRandom(12));
+        for (int i = 0; i < 200; i++) {
+            SimulatedGame.Result r = game.play();
+            GameEngine engine = game.getEngine();
+            assertEquals(GameEngine.GameState.GAME_OVER, engine.getGameState());
+            assertEquals(r.playerWon(), engine.getCpuBoard().allShipsSunk());
+            assertTrue(r.playerShots() >= 17 && r.playerShots() <= GameVariant.STANDARD.cells());
+            int bonus = r.playerWon() ? GameEngine.VICTORY_BONUS : 0;
+            assertEquals(r.sinkRewards() - r.sinkPenalties() + bonus, r.moneyDelta());
+        }
+    }
+
+    @Test
+    void sameSeedPlaysTheSameGames() {
+        SimulatedGame a = new SimulatedGame(GameVariant.STANDARD, new SplittableRandom(3), StrategyType.HUNT_TARGET, StrategyType.DENSITY);
+        SimulatedGame b = new SimulatedGame(GameVariant.STANDARD, new SplittableRandom(3), StrategyType.HUNT_TARGET, StrategyType.DENSITY);
+        for (int i = 0; i < 50; i++) assertEquals(a.play(), b.play());
+    }
+}
@@ -0,0 +1,33 @@
+package com.javamaster44.sim;
+
+import com.javamaster44.logic.StrategyType;
+import com.javamaster44.model.GameVariant;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TournamentRunnerTest {
+
+    @Test
+    void resultsDependOnTheSeedNotTheThreads() {
+        // Several shards, so the split streams are exercised
+        TournamentRunner.Stats one = TournamentRunner.run(1500, 1, 21);
+        TournamentRunner.Stats four = TournamentRunner.run(1500, 4, 21);
+        assertEquals(1500, one.games());
+        assertEquals(one.winRate(), four.winRate());
+        assertEquals(one.meanShotsToWin(), four.meanShotsToWin());
+        assertEquals(one.meanMoneyDelta(), four.meanMoneyDelta());
+        assertEquals(one.meanSinkRewards(), four.meanSinkRewards());
+        assertEquals(one.meanSinkPenalties(), four.meanSinkPenalties());
+    }
+
+    @Test
+    void mirrorMatchIsRoughlyEven() {
+        TournamentRunner.Stats stats = TournamentRunner.run(2000, 2, 5, GameVariant.STANDARD,
+                StrategyType.HUNT_TARGET, StrategyType.HUNT_TARGET);
+        // The player shoots first, so a small edge is expected
+        assertTrue(stats.winRate() > 0.4 && stats.winRate() < 0.65, "win rate " + stats.winRate());
+        assertTrue(stats.meanShotsToWin() > 17 && stats.meanShotsToWin() < 100);
+    }
+}